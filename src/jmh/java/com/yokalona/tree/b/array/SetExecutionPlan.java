@@ -1,7 +1,9 @@
 package com.yokalona.tree.b.array;
 
 import com.yokalona.array.io.FixedObjectLayout;
+import com.yokalona.array.io.MemoryStorage;
 import com.yokalona.array.PersistentArray;
+import com.yokalona.array.configuration.File.Backend;
 import com.yokalona.array.debug.CompactInteger;
 import org.openjdk.jmh.annotations.*;
 
@@ -24,6 +26,8 @@ public class SetExecutionPlan {
     public int size;
     @Param({".01", ".05", ".1", ".25"})
     public float factor;
+    @Param({"FILE", "MEMORY"})
+    public Backend backend;
 
     public int next;
     public Path path;
@@ -38,7 +42,7 @@ public class SetExecutionPlan {
     setUp() throws IOException {
         path = Files.createTempDirectory("jmh");
         this.array = new PersistentArray<>(size, CompactInteger.serializer, FixedObjectLayout::new,
-                configure(file(path.resolve("array.linear")).cached())
+                configure(file(path.resolve("array.linear")).backend(backend).cached())
                         .memory(chunked(factor()))
                         .read(read().breakOnLoaded().chunked(factor())).write(write().chunked(factor())));
         this.linear = new int[size];
@@ -58,6 +62,7 @@ public class SetExecutionPlan {
     public void
     close() throws IOException {
         array.close();
+        if (backend == Backend.MEMORY) MemoryStorage.delete(path.resolve("array.linear"));
         try (var folder = Files.list(path)) {
             folder.map(Path::toFile).forEach(file -> {
                 var ignore = file.delete();
@@ -0,0 +1,119 @@
+package com.yokalona.tree.b.array;
+
+import com.yokalona.array.SegmentedArray;
+import com.yokalona.array.debug.CompactInteger;
+import com.yokalona.array.io.FixedObjectLayout;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.yokalona.array.configuration.Chunked.chunked;
+import static com.yokalona.array.configuration.ChunkedRead.read;
+import static com.yokalona.array.configuration.ChunkedWrite.write;
+import static com.yokalona.array.configuration.Configuration.configure;
+import static com.yokalona.array.configuration.File.file;
+
+/**
+ * Runs thousands of virtual threads against a single shared array. Every pinned virtual thread is recorded by JFR,
+ * the trial fails if any of them was pinned while waiting for a lock or doing I/O.
+ */
+@State(Scope.Benchmark)
+public class VirtualThreadTest {
+
+    private static final int LENGTH = 1 << 20;
+    private static final int SEGMENT = 1 << 14;
+
+    @Param({"1000", "10000"})
+    public int threads;
+    @Param({"16"})
+    public int operations;
+
+    private Path path;
+    private Recording recording;
+    private SegmentedArray<CompactInteger> array;
+
+    @Setup(Level.Trial)
+    public void
+    setUp() throws IOException {
+        path = Files.createTempDirectory("jmh");
+        recording = new Recording();
+        recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+        recording.start();
+        array = SegmentedArray.create(LENGTH, SEGMENT, path.resolve("array.directory"), List.of(path),
+                CompactInteger.serializer, FixedObjectLayout::new,
+                configure(file(path.resolve("array.segment")).cached())
+                        .memory(chunked(1024))
+                        .read(read().chunked(64))
+                        .write(write().chunked(64)));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void
+    sharedArray() {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int thread = 0; thread < threads; thread++) {
+                executor.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int operation = 0; operation < operations; operation++) {
+                        long index = random.nextLong(LENGTH);
+                        if (random.nextBoolean()) array.set(index, new CompactInteger((int) index));
+                        else array.get(index);
+                    }
+                });
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void
+    close() throws IOException {
+        array.close();
+        recording.stop();
+        Path events = path.resolve("pinned.jfr");
+        recording.dump(events);
+        recording.close();
+        long pinned;
+        try (RecordingFile file = new RecordingFile(events)) {
+            for (pinned = 0; file.hasMoreEvents(); ) {
+                RecordedEvent event = file.readEvent();
+                if (event.getEventType().getName().equals("jdk.VirtualThreadPinned")) pinned++;
+            }
+        }
+        try (var folder = Files.list(path)) {
+            folder.map(Path::toFile).forEach(file -> {
+                var ignore = file.delete();
+            });
+        }
+        if (pinned > 0) throw new IllegalStateException(pinned + " virtual threads were pinned");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .forks(1)
+                .resultFormat(ResultFormatType.JSON)
+                .result("benchmarks/array-virtual-threads-output.json")
+                .include(VirtualThreadTest.class.getSimpleName())
+                .build();
+
+        new Runner(options).run();
+    }
+
+}
@@ -0,0 +1,168 @@
+package com.yokalona.array;
+
+import com.yokalona.array.configuration.File;
+import com.yokalona.array.exceptions.DeserializationException;
+import com.yokalona.array.io.Storage;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * <p>Issues positional reads of a {@link PersistentArray} without blocking the caller for the latency of the device.
+ * Reads go through an {@link AsynchronousFileChannel}, so many of them are in flight at once, while the number of
+ * reads in flight is bounded, the caller waits for a permit once the bound is reached.</p>
+ * <p>Reads of the same range, that are requested while the range is in flight, share a single I/O. Only arrays of the
+ * {@link File.Backend#FILE file} and {@link File.Backend#CHANNEL channel} backends are read through the asynchronous
+ * channel, any other array is read through its own {@link Storage}, so the semantics of the backend are kept: direct
+ * storage is read on a virtual thread, still bypassing the page cache, mapped and in-memory storages are plain memory
+ * copies and are read synchronously.</p>
+ */
+final class AsyncReader implements AutoCloseable {
+
+    private final File file;
+    private final int inflight;
+    private final Semaphore permits;
+    private final Map<Range, CompletableFuture<byte[]>> reads = new ConcurrentHashMap<>();
+
+    private AsynchronousFileChannel channel;
+    private Storage storage;
+    private ExecutorService executor;
+
+    AsyncReader(File file, int inflight) {
+        this.file = file;
+        this.inflight = inflight;
+        this.permits = new Semaphore(inflight);
+    }
+
+    /**
+     * Must be called by the thread, that owns the array.
+     */
+    CompletableFuture<byte[]>
+    read(long address, int length) {
+        Range range = new Range(address, length);
+        CompletableFuture<byte[]> read = reads.get(range);
+        if (read != null) return read;
+        if (file.backend() == File.Backend.MEMORY || file.backend() == File.Backend.MAPPED)
+            return CompletableFuture.completedFuture(readSynchronously(range));
+
+        permits.acquireUninterruptibly();
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+        if ((read = reads.putIfAbsent(range, future)) != null) {
+            permits.release();
+            return read;
+        }
+        try {
+            if (file.backend() == File.Backend.DIRECT) {
+                storage();
+                executor().execute(() -> {
+                    try {
+                        complete(range, future, readSynchronously(range), null);
+                    } catch (RuntimeException e) {
+                        complete(range, future, null, e);
+                    }
+                });
+            } else {
+                ByteBuffer buffer = ByteBuffer.allocate(length);
+                channel().read(buffer, address, buffer, new Handler(range, future));
+            }
+        } catch (IOException | RuntimeException e) {
+            complete(range, future, null, e);
+        }
+        return future;
+    }
+
+    /**
+     * Waits for every read in flight.
+     */
+    @Override
+    public void
+    close() throws IOException {
+        permits.acquireUninterruptibly(inflight);
+        try {
+            if (executor != null) executor.close();
+            if (channel != null) channel.close();
+            if (storage != null) storage.close();
+        } finally {
+            permits.release(inflight);
+        }
+    }
+
+    private AsynchronousFileChannel
+    channel() throws IOException {
+        if (channel == null) channel = AsynchronousFileChannel.open(file.path(), READ);
+        return channel;
+    }
+
+    /**
+     * Opens the storage of the array once, on the thread, that owns the array.
+     */
+    private Storage
+    storage() throws IOException {
+        if (storage == null) storage = Storage.open(file);
+        return storage;
+    }
+
+    private ExecutorService
+    executor() {
+        if (executor == null) executor = Executors.newVirtualThreadPerTaskExecutor();
+        return executor;
+    }
+
+    private byte[]
+    readSynchronously(Range range) {
+        try {
+            byte[] data = new byte[range.length];
+            storage().readFully(range.address, data, 0, data.length);
+            return data;
+        } catch (IOException e) {
+            throw new DeserializationException("during asynchronous read", e);
+        }
+    }
+
+    private void
+    complete(Range range, CompletableFuture<byte[]> future, byte[] data, Throwable error) {
+        reads.remove(range);
+        permits.release();
+        if (error == null) future.complete(data);
+        else future.completeExceptionally(error);
+    }
+
+    private record Range(long address, int length) {
+    }
+
+    private final class Handler implements CompletionHandler<Integer, ByteBuffer> {
+
+        private final Range range;
+        private final CompletableFuture<byte[]> future;
+
+        Handler(Range range, CompletableFuture<byte[]> future) {
+            this.range = range;
+            this.future = future;
+        }
+
+        @Override
+        public void
+        completed(Integer read, ByteBuffer buffer) {
+            if (!buffer.hasRemaining()) complete(range, future, buffer.array(), null);
+            else if (read < 0) complete(range, future, null, new EOFException());
+            else channel.read(buffer, range.address + buffer.position(), buffer, this);
+        }
+
+        @Override
+        public void
+        failed(Throwable error, ByteBuffer buffer) {
+            complete(range, future, null, error);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.yokalona.array;
 
 import com.yokalona.annotations.PerformanceImpact;
+import com.yokalona.annotations.TestOnly;
 import com.yokalona.array.configuration.Configuration;
 import com.yokalona.array.exceptions.DeserializationException;
 import com.yokalona.array.exceptions.FileMarkedForDeletingException;
@@ -14,24 +15,46 @@ import com.yokalona.array.io.DataLayout;
 import com.yokalona.array.io.InputReader;
 import com.yokalona.array.io.LayoutProvider;
 import com.yokalona.array.io.OutputWriter;
+import com.yokalona.array.io.RedoLog;
+import com.yokalona.array.io.Storage;
+import com.yokalona.array.io.Synchronizer;
 import com.yokalona.array.serializers.Serializers;
 import com.yokalona.array.serializers.primitives.BooleanSerializer;
 import com.yokalona.array.serializers.FixedSizeSerializer;
 import com.yokalona.array.serializers.primitives.IntegerSerializer;
 import com.yokalona.array.subscriber.ChunkType;
-import com.yokalona.array.subscriber.Subscriber;
+import com.yokalona.array.subscriber.Dispatcher;
+import com.yokalona.array.subscriber.Event;
+import com.yokalona.array.subscriber.Histogram;
+import com.yokalona.array.subscriber.Operation;
 import com.yokalona.array.serializers.Version;
+import com.yokalona.jfr.CacheMissEvent;
+import com.yokalona.jfr.ChunkReadEvent;
+import com.yokalona.jfr.ChunkWriteEvent;
+import com.yokalona.jmx.Management;
+import com.yokalona.jmx.PersistentArrayMXBean;
 
+import javax.management.ObjectName;
 import java.io.BufferedInputStream;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
 import java.util.TreeSet;
-import java.util.function.Consumer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ObjIntConsumer;
 
 
 /**
@@ -103,14 +126,37 @@ public class PersistentArray<Type> implements AutoCloseable {
     private final int length;
     private final ChunkQueue queue;
     private final CachedFile storage;
+    private final ZoneMap<Type> zones;
+    private final RedoLog log;
+    private final Synchronizer synchronizer;
+    private final Synchronizer.Sync target;
+    private final Dispatcher dispatcher;
     private final byte[] reusableBuffer;
     private final DataLayout dataLayout;
     private final FixedSizeSerializer<Type> type;
     private final Configuration configuration;
+    private final List<Snapshot<Type>> snapshots = new CopyOnWriteArrayList<>();
+    private final Histogram latency;
+    private final ObjectName management;
 
     private Object[] data;
     private int[] indices;
     private int readChunkSize;
+    private byte[] journalBuffer = new byte[0];
+    private boolean unsynced;
+    private CompletableFuture<Void> committed = CompletableFuture.completedFuture(null);
+    private final Queue<Deferred> deferred = new ArrayDeque<>();
+    private final BitSet unapplied = new BitSet();
+    private final Statistics statistics = new Statistics();
+    private final Tuner tuner;
+    private Warmer warmer;
+    private BitSet written;
+    private AsyncReader async;
+    private final Queue<Loaded> loaded = new ConcurrentLinkedQueue<>();
+    private volatile boolean pending;
+    private volatile int pendingRead;
+    private volatile int pendingWrite;
+    private volatile int pendingMemory;
 
     private PersistentArray(int length, FixedSizeSerializer<Type> type, Object[] data, LayoutProvider layoutProvider,
                             Configuration configuration) {
@@ -118,6 +164,7 @@ public class PersistentArray<Type> implements AutoCloseable {
         this.data = data;
         this.length = length;
         this.configuration = configuration;
+        this.dispatcher = new Dispatcher(configuration.subscribers(), configuration.dispatch(), configuration.executor());
         this.dataLayout = layoutProvider.provide(type);
         this.version.mode(this.dataLayout.mode());
         this.indices = new int[data.length];
@@ -126,7 +173,19 @@ public class PersistentArray<Type> implements AutoCloseable {
         this.queue = new ChunkQueue(configuration.write().size());
         this.reusableBuffer = new byte[configuration.file().buffer()];
         this.readChunkSize = configuration.read().size();
+        this.zones = configuration.zones().zoned()
+                ? ZoneMap.open(length, configuration.zones(), type, configuration.file().path()) : null;
+        if (zones == null) ZoneMap.discard(configuration.file().path());
+        this.log = configuration.journal().journaled() ? openLog(configuration) : null;
+        this.synchronizer = Synchronizer.open(configuration.durability(), configuration.file().path());
+        this.target = log != null ? log::force : new Synchronizer.FileSync(configuration.file());
+        this.latency = configuration.managed() ? new Histogram() : null;
         configuration.subscribers().forEach(subscriber -> subscriber.init(this));
+        this.management = configuration.managed()
+                ? Management.register(new Managed(), "PersistentArray", configuration.file().path()) : null;
+        this.tuner = configuration.tuned().tuned()
+                ? new Tuner(this, statistics, configuration.tuned(), configuration.write().chunked()) : null;
+        if (tuner != null) tuner.start();
     }
 
     /**
@@ -152,14 +211,63 @@ public class PersistentArray<Type> implements AutoCloseable {
     get(int index) {
         assert index >= 0 && index < length : index + " " + length;
 
+        if (pending) safepoint();
         if (configuration.read().forceReload() || isFree(index)) {
-            notify(subscriber -> subscriber.onCacheMiss(index));
+            statistics.misses++;
+            dispatcher.dispatch(Event.CACHE_MISS, index);
+            missed(index);
             load(index);
-        }
+        } else statistics.hits++;
 
         return (Type) data[index % data.length];
     }
 
+    /**
+     * <p>Returns item from the persistent array without blocking on I/O. Resident record is returned as a completed
+     * future, otherwise the whole read chunk of the record is read asynchronously, misses, that land in a chunk being
+     * read, share its read. The number of reads in flight is bounded by
+     * {@link com.yokalona.array.configuration.ChunkedRead#inflight()}, once the bound is reached the caller waits for
+     * a read to complete.</p>
+     * <p>The future is completed with the record as of the moment of dispatching the method. Read chunk is installed
+     * into memory on the next access to the array, unless anything was written in between. Should be called by the
+     * thread, that owns the array.</p>
+     */
+    @SuppressWarnings("unchecked")
+    public final CompletableFuture<Type>
+    getAsync(int index) {
+        assert index >= 0 && index < length : index + " " + length;
+
+        if (pending) safepoint();
+        if (!configuration.read().forceReload() && !isFree(index)) {
+            statistics.hits++;
+            return CompletableFuture.completedFuture((Type) data[index % data.length]);
+        }
+        statistics.misses++;
+        dispatcher.dispatch(Event.CACHE_MISS, index);
+        missed(index);
+        int from = index - index % readChunkSize, to = Math.min(from + readChunkSize, length);
+        long stamp = statistics.writes;
+        settle(from, to);
+        if (async == null) async = new AsyncReader(configuration.file(), configuration.read().inflight());
+        return async.read(dataLayout.address(from), (to - from) * type.sizeOf()).thenApply(chunk -> {
+            loaded.add(new Loaded(from, chunk, stamp));
+            pending = true;
+            return type.deserialize(chunk, (index - from) * type.sizeOf());
+        });
+    }
+
+    /**
+     * Batched {@link #getAsync(int)}, records are returned in the order of the indices. Misses, that land in the same
+     * read chunk, are served by a single read.
+     */
+    public final CompletableFuture<List<Type>>
+    getAllAsync(int... indices) {
+        List<CompletableFuture<Type>> futures = new ArrayList<>(indices.length);
+        for (int index : indices) futures.add(getAsync(index));
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(ignore -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
     /**
      * Sets the value in a persistent array. This operation might cause data to be flushed to the external resource, like
      * disk. Other records might be flushed as well depending on configuration.
@@ -168,6 +276,9 @@ public class PersistentArray<Type> implements AutoCloseable {
     set(int index, Type value) {
         assert index >= 0 && index < length;
 
+        if (pending) safepoint();
+        statistics.writes++;
+        if (written != null) written.set(index);
         int prior = indices[index % indices.length];
         if (prior >= 0 && queue.contains(prior)) {
             if (configuration.write().forceFlush()) flush();
@@ -175,7 +286,7 @@ public class PersistentArray<Type> implements AutoCloseable {
                 serialise(prior);
                 queue.remove(prior);
             }
-            notify(subscriber -> subscriber.onWriteCollision(prior, index));
+            dispatcher.dispatch(Event.WRITE_COLLISION, prior, index);
         }
 
         associate(index, value);
@@ -193,6 +304,46 @@ public class PersistentArray<Type> implements AutoCloseable {
         resizeWriteChunk(prior);
     }
 
+    /**
+     * Visits every non-null record, that is within {@code [from, to]} range according to the configured zone order.
+     * Zones, which summary proves that none of the records can match, are skipped without any I/O. Records of the other
+     * zones are read from the file with positional reads of a read chunk each, bypassing the memory of the array, so
+     * the scan neither evicts resident records nor counts as cache misses. Zones, that are fully read during the scan,
+     * become bounded and can be skipped by the next scans.
+     *
+     * @throws IllegalStateException if zones are not configured
+     */
+    @PerformanceImpact
+    public final void
+    scan(Type from, Type to, ObjIntConsumer<Type> consumer) {
+        if (zones == null) throw new IllegalStateException("Zones are not configured");
+
+        flush();
+        Comparator<Type> order = zones.order();
+        byte[] chunk = new byte[readChunkSize * type.sizeOf()];
+        for (int zone = 0; zone < zones.zones(); zone++) {
+            if (!zones.mayContain(zone, from, to)) continue;
+            boolean bounded = zones.bounded(zone);
+            Type min = null, max = null;
+            int end = Math.min((zone + 1) * zones.size(), length);
+            for (int first = zone * zones.size(); first < end; first += readChunkSize) {
+                int records = Math.min(readChunkSize, end - first);
+                read(first, chunk, records);
+                for (int index = first; index < first + records; index++) {
+                    Type value = type.deserialize(chunk, (index - first) * type.sizeOf());
+                    dispatcher.dispatch(Event.DESERIALIZED, index);
+                    if (value == null) continue;
+                    if (!bounded) {
+                        if (min == null || order.compare(value, min) < 0) min = value;
+                        if (max == null || order.compare(value, max) > 0) max = value;
+                    }
+                    if (order.compare(value, from) >= 0 && order.compare(value, to) <= 0) consumer.accept(value, index);
+                }
+            }
+            if (!bounded) zones.summarize(zone, min, max);
+        }
+    }
+
     @PerformanceImpact
     public final void
     insert(int index, Type value) {
@@ -212,7 +363,7 @@ public class PersistentArray<Type> implements AutoCloseable {
 
         int prior = this.readChunkSize;
         this.readChunkSize = newSize;
-        notify(subscriber -> subscriber.onChunkResized(ChunkType.READ, prior, newSize));
+        dispatcher.dispatch(Event.CHUNK_RESIZED, ChunkType.READ.ordinal(), prior, newSize);
     }
 
     public final void
@@ -222,7 +373,7 @@ public class PersistentArray<Type> implements AutoCloseable {
         flush();
         int prior = queue.capacity;
         queue.capacity = newSize;
-        notify(subscriber -> subscriber.onChunkResized(ChunkType.WRITE, prior, newSize));
+        dispatcher.dispatch(Event.CHUNK_RESIZED, ChunkType.WRITE.ordinal(), prior, newSize);
     }
 
     public final void
@@ -234,7 +385,28 @@ public class PersistentArray<Type> implements AutoCloseable {
         this.data = new Object[newSize];
         this.indices = new int[newSize];
         Arrays.fill(indices, -1);
-        notify(subscriber -> subscriber.onChunkResized(ChunkType.MEMORY, prior, newSize));
+        dispatcher.dispatch(Event.CHUNK_RESIZED, ChunkType.MEMORY.ordinal(), prior, newSize);
+    }
+
+    /**
+     * Takes a point-in-time view of the array. Pending records are flushed first, after that chunks are copied into
+     * the snapshot's shadow file right before they are updated in place. Should be called by the thread, that writes
+     * into the array, the returned snapshot can be read from any thread and must be closed to reclaim its space.
+     */
+    public Snapshot<Type>
+    snapshot() {
+        flush();
+        apply(true);
+        Path path = configuration.file().path();
+        try {
+            Path shadow = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName() + ".", ".snapshot");
+            Snapshot<Type> snapshot = new Snapshot<>(configuration.file(), shadow, length, readChunkSize, type, dataLayout,
+                    snapshots::remove);
+            snapshots.add(snapshot);
+            return snapshot;
+        } catch (IOException e) {
+            throw new SerializationException("during snapshot creation", e);
+        }
     }
 
     public int
@@ -254,18 +426,24 @@ public class PersistentArray<Type> implements AutoCloseable {
         queue.clear();
         setForRemoval();
         storage.closeFile();
+        if (zones != null) zones.delete();
+        if (log != null) log.delete();
+        if (configuration.warmup().warm()) Warmer.delete(configuration.file().path());
     }
 
     @PerformanceImpact
     public void
     serialise() {
-        try (storage; OutputWriter writer = new OutputWriter(storage.get(), reusableBuffer)) {
+        try (storage; OutputWriter writer = storage.writer(reusableBuffer)) {
             writer.write(HEADER);
             writer.write(Version.serializer.serialize(version));
             writer.write(Serializers.serialize(!DELETED));
             writer.write(Serializers.serialize(length));
             for (int index = 0; index < length; index++) writer.write(type.serialize(null));
-            notify(Subscriber::onFileCreated);
+            if (zones != null) zones.clear();
+            if (log != null) log.truncate();
+            if (configuration.warmup().warm()) Warmer.delete(configuration.file().path());
+            dispatcher.dispatch(Event.FILE_CREATED);
         } catch (Exception e) {
             throw new SerializationException("during full array serialization", e);
         }
@@ -273,9 +451,8 @@ public class PersistentArray<Type> implements AutoCloseable {
 
     private void
     setForRemoval() throws IOException {
-        try (var raf = new RandomAccessFile(configuration.file().path().toFile(), "rw")) {
-            raf.seek(HEADER.length + Version.serializer.sizeOf());
-            raf.write(Serializers.serialize(true));
+        try (Storage storage = Storage.open(configuration.file())) {
+            storage.write(HEADER.length + Version.serializer.sizeOf(), Serializers.serialize(true));
         }
     }
 
@@ -295,17 +472,25 @@ public class PersistentArray<Type> implements AutoCloseable {
         return configuration.read().forceReload() || isFree(index);
     }
 
-    private void
-    notify(Consumer<Subscriber> notification) {
-//        configuration.executor().execute(() ->
-                configuration.subscribers().forEach(notification);
-    }
-
     private void
     load(int index) {
+        if (evicts(index)) {
+            int prior = indices[index % indices.length];
+            serialise(prior);
+            queue.remove(prior);
+        }
         deserialize(index, readChunkSize);
     }
 
+    /**
+     * Tells whether loading the record would evict another record, that is not yet flushed.
+     */
+    private boolean
+    evicts(int index) {
+        int prior = indices[index % indices.length];
+        return prior >= 0 && prior != index && queue.contains(prior);
+    }
+
     private void
     associate(int index, Type value) {
         indices[index % indices.length] = index;
@@ -316,31 +501,343 @@ public class PersistentArray<Type> implements AutoCloseable {
     serialise(int index) {
         assert index >= 0 && index < length;
 
-        try (storage; OutputWriter writer = new OutputWriter(storage.get(), reusableBuffer)) {
-            dataLayout.seek(index, storage.peek());
-            serialize(writer, index);
-        } catch (Exception e) {
-            throw new SerializationException("during " + index + " serialization", e);
+        long start = timer();
+        ChunkWriteEvent event = new ChunkWriteEvent();
+        event.begin();
+        if (log != null) journaled(index, index);
+        else {
+            try (storage; OutputWriter writer = storage.writer(reusableBuffer)) {
+                writer.seek(dataLayout.address(index));
+                serialize(writer, index);
+            } catch (Exception e) {
+                throw new SerializationException("during " + index + " serialization", e);
+            }
+            sync();
         }
+        timed(Operation.WRITE, start);
+        written(event, index, 1);
     }
 
     private void
     serialiseChunk() {
-        try (storage; OutputWriter writer = new OutputWriter(storage.get(), reusableBuffer)) {
-            if (queue.count == 0) return;
-            int prior = queue.first, current;
-            dataLayout.seek(prior, storage.peek());
-            serialize(writer, prior);
-            while ((current = queue.set.nextSetBit(prior + 1)) != -1) {
-                if (current != prior + 1) {
-                    writer.flush();
-                    dataLayout.seek(current, storage.peek());
+        if (queue.count == 0) return;
+        long start = timer();
+        ChunkWriteEvent event = new ChunkWriteEvent();
+        event.begin();
+        if (log != null) journaled(queue.first, Integer.MAX_VALUE);
+        else {
+            try (storage; OutputWriter writer = storage.writer(reusableBuffer)) {
+                unsynced = true;
+                int prior = queue.first, current;
+                writer.seek(dataLayout.address(prior));
+                serialize(writer, prior);
+                while ((current = queue.set.nextSetBit(prior + 1)) != -1) {
+                    if (current != prior + 1) writer.seek(dataLayout.address(current));
+                    serialize(writer, prior = current);
                 }
-                serialize(writer, prior = current);
+            } catch (Exception e) {
+                throw new SerializationException("during chunk serialization", e);
             }
-            notify(Subscriber::onChunkSerialized);
-        } catch (Exception e) {
-            throw new SerializationException("during chunk serialization", e);
+        }
+        dispatcher.dispatch(Event.CHUNK_SERIALIZED);
+        timed(Operation.CHUNK_WRITE, start);
+        written(event, queue.first, queue.count);
+    }
+
+    private void
+    written(ChunkWriteEvent event, int index, int records) {
+        statistics.bytesWritten += (long) records * type.sizeOf();
+        if (!event.shouldCommit()) return;
+        event.file = configuration.file().path().toString();
+        event.index = index;
+        event.records = records;
+        event.bytes = (long) records * type.sizeOf();
+        event.commit();
+    }
+
+    private void
+    missed(int index) {
+        CacheMissEvent event = new CacheMissEvent();
+        if (!event.shouldCommit()) return;
+        event.file = configuration.file().path().toString();
+        event.index = index;
+        event.commit();
+    }
+
+    private long
+    timer() {
+        return dispatcher.interested(Event.TIMED) || latency != null ? System.nanoTime() : 0;
+    }
+
+    private void
+    timed(Operation operation, long start) {
+        if (operation != Operation.CHUNK_READ) statistics.flushes++;
+        if (!dispatcher.interested(Event.TIMED) && latency == null) return;
+        long elapsed = System.nanoTime() - start;
+        dispatcher.dispatch(Event.TIMED, operation.ordinal(), elapsed);
+        if (latency != null && operation != Operation.CHUNK_READ) latency.record(elapsed);
+    }
+
+    @TestOnly
+    Tuner
+    tuner() {
+        return tuner;
+    }
+
+    @TestOnly
+    boolean
+    warming() {
+        if (pending) safepoint();
+        return warmer != null;
+    }
+
+    int
+    readChunk() {
+        return readChunkSize;
+    }
+
+    int
+    writeChunk() {
+        return queue.capacity;
+    }
+
+    int
+    memoryChunk() {
+        return data.length;
+    }
+
+    /**
+     * Requests new chunk sizes from any thread, zero keeps the current size. Requested sizes are applied by the thread,
+     * that owns the array, on its next access.
+     */
+    void
+    request(int read, int write, int memory) {
+        if (read > 0) pendingRead = read;
+        if (write > 0) pendingWrite = write;
+        if (memory > 0) pendingMemory = memory;
+        pending = true;
+    }
+
+    /**
+     * Applies changes requested by other threads, runs on the thread, that owns the array.
+     */
+    private void
+    safepoint() {
+        pending = false;
+        if (warmer != null) install();
+        if (!loaded.isEmpty()) installLoaded();
+        if (pendingRead > 0 || pendingWrite > 0 || pendingMemory > 0) resize();
+    }
+
+    /**
+     * Applies requested chunk sizes. Sizes are applied in the order, that keeps the chunk invariant at every step,
+     * invalid combination is discarded.
+     */
+    private void
+    resize() {
+        int read = pendingRead > 0 ? pendingRead : readChunkSize;
+        int write = pendingWrite > 0 ? pendingWrite : queue.capacity;
+        int memory = pendingMemory > 0 ? pendingMemory : data.length;
+        pendingRead = pendingWrite = pendingMemory = 0;
+        if (read > memory || write > memory) return;
+        if (memory > data.length) resizeMemoryChunk(memory);
+        if (read != readChunkSize) resizeReadChunk(read);
+        if (write != queue.capacity) resizeWriteChunk(write);
+        if (memory < data.length) resizeMemoryChunk(memory);
+    }
+
+    /**
+     * Starts reading the persisted hot set in the background.
+     */
+    private void
+    warm() {
+        int[] hot = Warmer.take(configuration.file().path(), length);
+        if (hot.length == 0) return;
+        written = new BitSet(length);
+        warmer = new Warmer(configuration.file(), hot, type.sizeOf(), dataLayout, () -> pending = true);
+        warmer.start(configuration.warmup().parallelism());
+    }
+
+    /**
+     * Installs records read by the warmer. Record is installed only into an empty slot and only if it was not written
+     * since the array was opened, so neither a resident nor a newer record is ever replaced.
+     */
+    private void
+    install() {
+        Warmer.Run run;
+        while ((run = warmer.poll()) != null) {
+            int first = run.indices()[0];
+            for (int index : run.indices()) {
+                if (indices[index % indices.length] >= 0 || written.get(index)) continue;
+                associate(index, type.deserialize(run.data(), (index - first) * type.sizeOf()));
+            }
+        }
+        if (warmer.done()) stopWarmup();
+    }
+
+    /**
+     * Installs chunks read asynchronously. Chunk is installed only if nothing was written since its read was issued,
+     * and only into empty slots, so neither a resident nor a newer record is ever replaced.
+     */
+    private void
+    installLoaded() {
+        Loaded chunk;
+        while ((chunk = loaded.poll()) != null) {
+            if (chunk.stamp() != statistics.writes) continue;
+            int records = chunk.data().length / type.sizeOf();
+            for (int index = chunk.from(); index < chunk.from() + records; index++) {
+                if (indices[index % indices.length] >= 0) continue;
+                associate(index, type.deserialize(chunk.data(), (index - chunk.from()) * type.sizeOf()));
+            }
+        }
+    }
+
+    private void
+    stopWarmup() {
+        if (warmer == null) return;
+        warmer.close();
+        warmer = null;
+        written = null;
+    }
+
+    private int[]
+    resident() {
+        int[] resident = Arrays.stream(indices).filter(index -> index >= 0).toArray();
+        Arrays.sort(resident);
+        return resident;
+    }
+
+    /**
+     * Journals every dirty record within {@code [from, to]} and updates in place the records of the batches, that are
+     * already durable. Flush never waits for its own batch to become durable.
+     */
+    private void
+    journaled(int from, int to) {
+        try {
+            journal(from, to);
+        } catch (IOException e) {
+            throw new SerializationException("during journaling", e);
+        }
+        apply(false);
+        if (log.size() >= configuration.journal().checkpoint()) checkpoint();
+    }
+
+    /**
+     * Appends every dirty record within {@code [from, to]} to the redo log as a single batch and requests a sync of the
+     * log. Records of the batch are updated in place by {@link #apply(boolean)}, only after the batch is synced.
+     */
+    @SuppressWarnings("unchecked")
+    private void
+    journal(int from, int to) throws IOException {
+        int entry = Integer.BYTES + type.sizeOf();
+        if (journalBuffer.length < queue.count * entry) journalBuffer = new byte[Math.max(queue.count, 1) * entry];
+        int offset = 0;
+        for (int index = from; index >= 0 && index <= to; index = queue.set.nextSetBit(index + 1)) {
+            if (isFree(index)) continue;
+            if (offset + entry > journalBuffer.length) journalBuffer = Arrays.copyOf(journalBuffer, offset + entry);
+            Type value = (Type) data[index % data.length];
+            IntegerSerializer.INSTANCE.serializeCompact(index, journalBuffer, offset);
+            type.serialize(value, journalBuffer, offset + Integer.BYTES);
+            offset += entry;
+            unapplied.set(index);
+            if (zones != null) zones.widen(index, value);
+            dispatcher.dispatch(Event.SERIALIZED, index);
+            if (to == index) break;
+        }
+        if (offset == 0) return;
+        log.append(journalBuffer, offset);
+        deferred.add(new Deferred(sync(), Arrays.copyOf(journalBuffer, offset)));
+    }
+
+    /**
+     * Updates in place the records of journaled batches, in the order they were journaled, each batch once it is
+     * durable. Chunks of open snapshots are preserved before they are updated.
+     *
+     * @param wait whether to wait for every batch to become durable
+     */
+    private void
+    apply(boolean wait) {
+        if (deferred.isEmpty()) return;
+        int entry = Integer.BYTES + type.sizeOf();
+        try (storage) {
+            Storage file = storage.get();
+            Deferred batch;
+            while ((batch = deferred.peek()) != null && (wait || batch.durable().isDone())) {
+                batch.durable().join();
+                for (int offset = 0; offset < batch.entries().length; offset += entry) {
+                    int index = IntegerSerializer.INSTANCE.deserializeCompact(batch.entries(), offset);
+                    if (!snapshots.isEmpty()) for (Snapshot<Type> snapshot : snapshots) snapshot.preserve(index);
+                    file.write(dataLayout.address(index), batch.entries(), offset + Integer.BYTES, type.sizeOf());
+                }
+                deferred.poll();
+            }
+        } catch (CompletionException e) {
+            throw new SerializationException("during sync", e);
+        } catch (IOException e) {
+            throw new SerializationException("during journaled batch application", e);
+        }
+        if (deferred.isEmpty()) unapplied.clear();
+    }
+
+    /**
+     * Makes sure, that journaled records within {@code [from, to)} are in place, before they are read from the file.
+     */
+    private void
+    settle(int from, int to) {
+        if (deferred.isEmpty()) return;
+        int next = unapplied.nextSetBit(from);
+        if (next >= 0 && next < to) apply(true);
+    }
+
+    private CompletableFuture<Void>
+    sync() {
+        try {
+            return committed = synchronizer.sync(target);
+        } catch (UncheckedIOException e) {
+            throw new SerializationException("during sync", e.getCause());
+        }
+    }
+
+    /**
+     * Syncs records, that were updated in place, after that the redo log is no longer needed to recover them.
+     */
+    private void
+    checkpoint() {
+        apply(true);
+        try (storage) {
+            storage.get().force(false);
+            log.truncate();
+        } catch (IOException e) {
+            throw new SerializationException("during checkpoint", e);
+        }
+    }
+
+    /**
+     * Re-applies records from the redo log, which might have not reached their place before the array was closed.
+     */
+    private void
+    recover() {
+        if (log == null) return;
+        try (storage) {
+            Storage file = storage.get();
+            int replayed = log.replay(Integer.BYTES + type.sizeOf(), (index, bytes, offset) -> {
+                if (index < 0 || index >= length) return;
+                file.write(dataLayout.address(index), bytes, offset, type.sizeOf());
+            });
+            if (replayed > 0) file.force(false);
+            log.truncate();
+        } catch (IOException e) {
+            throw new DeserializationException("during redo log replay", e);
+        }
+    }
+
+    private static RedoLog
+    openLog(Configuration configuration) {
+        Path path = configuration.file().path();
+        try {
+            return new RedoLog(path.resolveSibling(path.getFileName() + ".redo"));
+        } catch (IOException e) {
+            throw new DeserializationException("during redo log opening", e);
         }
     }
 
@@ -348,57 +845,258 @@ public class PersistentArray<Type> implements AutoCloseable {
     private void
     serialize(OutputWriter writer, int index) throws IOException {
         if (isFree(index)) return;
-        writer.write(type.serialize((Type) data[index % data.length]));
-        notify(subscriber -> subscriber.onSerialized(index));
+        Type value = (Type) data[index % data.length];
+        if (!snapshots.isEmpty()) for (Snapshot<Type> snapshot : snapshots) snapshot.preserve(index);
+        writer.write(type.serialize(value));
+        if (zones != null) zones.widen(index, value);
+        dispatcher.dispatch(Event.SERIALIZED, index);
     }
 
     private void
     deserialize(int index, int size) {
         assert index >= 0 && index < length && size >= 0;
 
+        settle(index, Math.min(index + size, length));
+        long start = timer();
+        ChunkReadEvent event = new ChunkReadEvent();
+        event.begin();
+        int records = 0;
         try (storage) {
-            RandomAccessFile raf = storage.get();
-            InputReader reader = new InputReader(raf, reusableBuffer);
-            dataLayout.seek(index, raf);
+            InputReader reader = storage.reader(reusableBuffer);
+            reader.seek(dataLayout.address(index));
             boolean shouldSeek = false;
             byte[] datum = new byte[type.sizeOf()];
             for (int offset = index; offset < Math.min(index + size, length); offset++) {
-                if (!reload(offset)) {
+                if (!reload(offset) || evicts(offset)) {
                     shouldSeek = true;
                     if (configuration.read().breakOnLoaded()) break;
                     else continue;
-                } else if (shouldSeek) {
-                    reader.invalidate();
-                    dataLayout.seek(offset, raf);
-                }
+                } else if (shouldSeek) reader.seek(dataLayout.address(offset));
                 shouldSeek = false;
                 deserialize(reader, datum, offset);
+                records++;
             }
-            if (size > 1) notify(Subscriber::onChunkDeserialized);
+            if (size > 1) dispatcher.dispatch(Event.CHUNK_DESERIALIZED);
+            statistics.bytesRead += (long) records * type.sizeOf();
+        } catch (IOException e) {
+            throw new DeserializationException("during " + index + " deserialization", e);
+        }
+        timed(Operation.CHUNK_READ, start);
+        if (event.shouldCommit()) {
+            event.file = configuration.file().path().toString();
+            event.index = index;
+            event.records = records;
+            event.bytes = (long) records * type.sizeOf();
+            event.commit();
+        }
+    }
+
+    /**
+     * Reads flushed records into the buffer with a single positional read, records are not installed into memory.
+     */
+    private void
+    read(int index, byte[] buffer, int records) {
+        settle(index, index + records);
+        long start = timer();
+        try (storage) {
+            storage.get().readFully(dataLayout.address(index), buffer, 0, records * type.sizeOf());
         } catch (IOException e) {
             throw new DeserializationException("during " + index + " deserialization", e);
         }
+        statistics.bytesRead += (long) records * type.sizeOf();
+        dispatcher.dispatch(Event.CHUNK_DESERIALIZED);
+        timed(Operation.CHUNK_READ, start);
     }
 
     private void
     deserialize(InputReader reader, byte[] datum, int index) throws IOException {
         reader.read(datum);
         associate(index, type.deserialize(datum, 0));
-        notify(subscriber -> subscriber.onDeserialized(index));
+        dispatcher.dispatch(Event.DESERIALIZED, index);
     }
 
     @Override
     public void
     close() {
+        if (tuner != null) tuner.stop();
+        Management.unregister(management);
+        stopWarmup();
         flush();
+        try {
+            if (async != null) async.close();
+        } catch (IOException e) {
+            throw new DeserializationException("during asynchronous reader closing", e);
+        }
+        loaded.clear();
+        if (configuration.warmup().warm()) Warmer.persist(configuration.file().path(), resident());
+        apply(true);
+        if (log != null && log.size() > 0) checkpoint();
+        try {
+            committed.join();
+        } catch (CompletionException e) {
+            throw new SerializationException("during sync", e);
+        } finally {
+            synchronizer.close();
+        }
+        try {
+            target.close();
+            if (log != null) log.close();
+        } catch (IOException e) {
+            throw new SerializationException("during closing", e);
+        }
         storage.closeFile();
+        dispatcher.drain();
     }
 
     public void
     flush() {
+        apply(false);
         if (configuration.write().chunked()) {
             serialiseChunk();
             queue.clear();
+            if (unsynced) {
+                unsynced = false;
+                sync();
+            }
+            if (log != null && log.size() >= configuration.journal().checkpoint()) checkpoint();
+        }
+        if (zones != null) zones.persist();
+    }
+
+    /**
+     * Flushes every pending record and returns a future, that completes once all the records written so far are durable
+     * according to the configured {@link com.yokalona.array.configuration.Durability}. For journaled arrays records
+     * are updated in place only after their batch is durable.
+     */
+    public CompletableFuture<Void>
+    commit() {
+        flush();
+        return committed;
+    }
+
+    private record Loaded(int from, byte[] data, long stamp) {
+    }
+
+    /**
+     * Journaled batch of records, that are updated in place once the batch is durable.
+     */
+    private record Deferred(CompletableFuture<Void> durable, byte[] entries) {
+    }
+
+    private final class Managed implements PersistentArrayMXBean {
+
+        @Override
+        public String
+        getFile() {
+            return configuration.file().path().toString();
+        }
+
+        @Override
+        public int
+        getLength() {
+            return length;
+        }
+
+        @Override
+        public long
+        getHits() {
+            return statistics.hits;
+        }
+
+        @Override
+        public long
+        getMisses() {
+            return statistics.misses;
+        }
+
+        @Override
+        public double
+        getHitRatio() {
+            long hits = statistics.hits, total = hits + statistics.misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        @Override
+        public int
+        getResidentRecords() {
+            int resident = 0;
+            for (int index : indices) if (index >= 0) resident++;
+            return resident;
+        }
+
+        @Override
+        public int
+        getDirtyRecords() {
+            return queue.count;
+        }
+
+        @Override
+        public long
+        getBytesRead() {
+            return statistics.bytesRead;
+        }
+
+        @Override
+        public long
+        getBytesWritten() {
+            return statistics.bytesWritten;
+        }
+
+        @Override
+        public long
+        getFlushes() {
+            return statistics.flushes;
+        }
+
+        @Override
+        public long
+        getFlushLatencyP50() {
+            return latency.percentile(50);
+        }
+
+        @Override
+        public long
+        getFlushLatencyP99() {
+            return latency.percentile(99);
+        }
+
+        @Override
+        public int
+        getReadChunkSize() {
+            return readChunkSize;
+        }
+
+        @Override
+        public int
+        getWriteChunkSize() {
+            return queue.capacity;
+        }
+
+        @Override
+        public int
+        getMemoryChunkSize() {
+            return data.length;
+        }
+
+        @Override
+        public void
+        resizeReadChunk(int size) {
+            if (size <= 0) throw new IllegalArgumentException("Chunk size must be positive");
+            request(size, 0, 0);
+        }
+
+        @Override
+        public void
+        resizeWriteChunk(int size) {
+            if (size <= 0) throw new IllegalArgumentException("Chunk size must be positive");
+            request(0, size, 0);
+        }
+
+        @Override
+        public void
+        resizeMemoryChunk(int size) {
+            if (size <= 0) throw new IllegalArgumentException("Chunk size must be positive");
+            request(0, 0, size);
         }
     }
 
@@ -411,13 +1109,16 @@ public class PersistentArray<Type> implements AutoCloseable {
     deserialize(FixedSizeSerializer<Type> type, Configuration configuration, TreeSet<Integer> preload) {
         assert type != null && configuration != null && preload != null;
 
-        try (InputStream input = new BufferedInputStream(new FileInputStream(configuration.file().path().toFile()))) {
+        try (Storage storage = Storage.open(configuration.file());
+             InputStream input = new BufferedInputStream(storage.input())) {
             validateHeader(input);
             byte mode = validateVersion(input);
             validateRemovalFlag(input);
             int length = readAsType(IntegerSerializer.INSTANCE, input);
             PersistentArray<Type> array = new PersistentArray<>(length, type, new Object[configuration.memory().size()],
                     LayoutProvider.which(mode, input), configuration);
+            array.recover();
+            if (configuration.warmup().warm()) array.warm();
             int boundary = configuration.memory().size();
             Iterator<Integer> iterator = preload.iterator();
             for (int index = 0; index < Math.min(boundary, preload.size()); index++) array.get(iterator.next());
@@ -0,0 +1,319 @@
+package com.yokalona.array;
+
+import com.yokalona.array.configuration.Configuration;
+import com.yokalona.array.exceptions.DeserializationException;
+import com.yokalona.array.exceptions.HeaderMismatchException;
+import com.yokalona.array.exceptions.SerializationException;
+import com.yokalona.array.io.LayoutProvider;
+import com.yokalona.array.io.Storage;
+import com.yokalona.array.serializers.FixedSizeSerializer;
+import com.yokalona.array.serializers.primitives.IntegerSerializer;
+import com.yokalona.array.serializers.primitives.LongSerializer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * <p>Long-indexed array, that is split into fixed-size segments. Each segment is a {@link PersistentArray} stored in
+ * its own file, segments are striped across the configured roots, which might reside on different devices.</p>
+ * <p>Segment files are created and opened lazily, on the first access to a segment. Segments are guarded by separate
+ * locks, so accesses to different segments, including their I/O, run in parallel. At most {@link #OPEN_SEGMENTS}
+ * segments are kept open, the least recently used segment is flushed and closed under its own lock, once another
+ * segment is opened. Segment, which lock is held by another thread, is left open till the next opening.</p>
+ * <p>The layout of the array is stored in a directory file:</p>
+ * <pre>
+ *     | header | length: 9 bytes | segment: 5 bytes | roots: 5 bytes | root: 4 bytes + UTF-8 | ... |
+ * </pre>
+ */
+public class SegmentedArray<Type> implements AutoCloseable {
+
+    private static final byte[] HEADER = new byte[]{-0x22, -0x36, -0x26, -0x06, -0x36, -0x24};
+    private static final int STRIPES = 64;
+
+    public static int OPEN_SEGMENTS = 256;
+
+    private final long length;
+    private final int segment;
+    private final Path directory;
+    private final List<Path> roots;
+    private final Configuration template;
+    private final FixedSizeSerializer<Type> type;
+    private final LayoutProvider layoutProvider;
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final ConcurrentHashMap<Integer, PersistentArray<Type>> segments = new ConcurrentHashMap<>();
+    private final ReentrantLock order = new ReentrantLock();
+    private final LinkedHashMap<Integer, Integer> recent = new LinkedHashMap<>(16, .75F, true);
+
+    private SegmentedArray(long length, int segment, Path directory, List<Path> roots, FixedSizeSerializer<Type> type,
+                           LayoutProvider layoutProvider, Configuration template) {
+        assert length >= 0 && segment > 0 && !roots.isEmpty();
+        assert (length + segment - 1) / segment <= Integer.MAX_VALUE;
+
+        this.type = type;
+        this.length = length;
+        this.segment = segment;
+        this.template = template;
+        this.directory = directory;
+        this.roots = List.copyOf(roots);
+        this.layoutProvider = layoutProvider;
+        for (int stripe = 0; stripe < STRIPES; stripe++) locks[stripe] = new ReentrantLock();
+    }
+
+    /**
+     * Creates a new segmented array, any segment files left by a prior array with the same directory are removed.
+     *
+     * @param length    of an array in records
+     * @param segment   length of a single segment in records
+     * @param directory file, that describes the layout of the array
+     * @param roots     folders to stripe segments across
+     * @param template  configuration of each segment, its file is relocated for each segment
+     */
+    public static <Type> SegmentedArray<Type>
+    create(long length, int segment, Path directory, List<Path> roots, FixedSizeSerializer<Type> type,
+           LayoutProvider layoutProvider, Configuration template) {
+        SegmentedArray<Type> array = new SegmentedArray<>(length, segment, directory, roots, type, layoutProvider, template);
+        try {
+            for (int index = 0; index < array.segments(); index++) Storage.delete(template.file().relocate(array.path(index)));
+            array.writeDirectory();
+        } catch (IOException e) {
+            throw new SerializationException("during segment directory creation", e);
+        }
+        return array;
+    }
+
+    public static <Type> SegmentedArray<Type>
+    open(Path directory, FixedSizeSerializer<Type> type, LayoutProvider layoutProvider, Configuration template) {
+        try {
+            byte[] data = Files.readAllBytes(directory);
+            if (data.length < HEADER.length || !Arrays.equals(HEADER, 0, HEADER.length, data, 0, HEADER.length))
+                throw new HeaderMismatchException();
+            int offset = HEADER.length;
+            long length = LongSerializer.INSTANCE.deserialize(data, offset);
+            int segment = IntegerSerializer.INSTANCE.deserialize(data, offset += LongSerializer.INSTANCE.sizeOf());
+            int count = IntegerSerializer.INSTANCE.deserialize(data, offset += IntegerSerializer.INSTANCE.sizeOf());
+            offset += IntegerSerializer.INSTANCE.sizeOf();
+            List<Path> roots = new ArrayList<>(count);
+            for (int root = 0; root < count; root++) {
+                int size = IntegerSerializer.INSTANCE.deserializeCompact(data, offset);
+                offset += Integer.BYTES;
+                roots.add(Path.of(new String(data, offset, size, StandardCharsets.UTF_8)));
+                offset += size;
+            }
+            return new SegmentedArray<>(length, segment, directory, roots, type, layoutProvider, template);
+        } catch (IOException e) {
+            throw new DeserializationException("during segment directory reading", e);
+        }
+    }
+
+    public Type
+    get(long index) {
+        assert index >= 0 && index < length : index + " " + length;
+
+        int segment = (int) (index / this.segment);
+        ReentrantLock lock = lock(segment);
+        lock.lock();
+        try {
+            return segment(segment).get((int) (index % this.segment));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void
+    set(long index, Type value) {
+        assert index >= 0 && index < length : index + " " + length;
+
+        int segment = (int) (index / this.segment);
+        ReentrantLock lock = lock(segment);
+        lock.lock();
+        try {
+            segment(segment).set((int) (index % this.segment), value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long
+    length() {
+        return length;
+    }
+
+    public int
+    segments() {
+        return (int) ((length + segment - 1) / segment);
+    }
+
+    /**
+     * Flushes every opened segment, segments are flushed in parallel, each on its own virtual thread.
+     */
+    public void
+    flush() {
+        forEachOpened(PersistentArray::flush);
+    }
+
+    @Override
+    public void
+    close() {
+        forEachOpened(PersistentArray::close);
+        segments.clear();
+        order.lock();
+        try {
+            recent.clear();
+        } finally {
+            order.unlock();
+        }
+    }
+
+    /**
+     * @return number of segments, that are currently open
+     */
+    int
+    opened() {
+        return segments.size();
+    }
+
+    private void
+    forEachOpened(Consumer<PersistentArray<Type>> action) {
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Integer segment : segments.keySet()) {
+                futures.add(executor.submit(() -> {
+                    ReentrantLock lock = lock(segment);
+                    lock.lock();
+                    try {
+                        action.accept(segments.get(segment));
+                    } finally {
+                        lock.unlock();
+                    }
+                }));
+            }
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+                throw new SerializationException("during segment flush", e);
+            }
+        }
+    }
+
+    /**
+     * Must be called with the lock of the segment being held.
+     */
+    private PersistentArray<Type>
+    segment(int segment) {
+        PersistentArray<Type> array = segments.get(segment);
+        if (array != null) {
+            touch(segment);
+            return array;
+        }
+        Path path = path(segment);
+        Configuration configuration = template.relocate(path);
+        if (Storage.exists(configuration.file())) array = PersistentArray.deserialize(type, configuration);
+        else array = new PersistentArray<>(length(segment), type, layoutProvider, configuration);
+        segments.put(segment, array);
+        for (int victim : touch(segment)) evict(victim);
+        return array;
+    }
+
+    /**
+     * Marks the segment as the most recently used one.
+     *
+     * @return least recently used segments beyond {@link #OPEN_SEGMENTS}
+     */
+    private List<Integer>
+    touch(int segment) {
+        order.lock();
+        try {
+            recent.put(segment, segment);
+            List<Integer> victims = new ArrayList<>();
+            for (Integer victim : recent.keySet()) {
+                if (recent.size() - victims.size() <= OPEN_SEGMENTS) break;
+                if (victim != segment) victims.add(victim);
+            }
+            return victims;
+        } finally {
+            order.unlock();
+        }
+    }
+
+    /**
+     * Flushes and closes the segment, unless its lock is held by another thread. Lock of the segment is only tried, so
+     * threads, that open segments of each other's stripes, never wait for each other.
+     */
+    private void
+    evict(int segment) {
+        ReentrantLock lock = lock(segment);
+        if (!lock.tryLock()) return;
+        try {
+            PersistentArray<Type> array = segments.remove(segment);
+            if (array == null) return;
+            order.lock();
+            try {
+                recent.remove(segment);
+            } finally {
+                order.unlock();
+            }
+            array.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int
+    length(int segment) {
+        return (int) Math.min(this.segment, length - (long) segment * this.segment);
+    }
+
+    private Path
+    path(int segment) {
+        return roots.get(segment % roots.size()).resolve(directory.getFileName() + "." + segment + ".la");
+    }
+
+    private ReentrantLock
+    lock(int segment) {
+        return locks[segment % STRIPES];
+    }
+
+    private void
+    writeDirectory() throws IOException {
+        List<byte[]> encoded = new ArrayList<>(roots.size());
+        int size = HEADER.length + LongSerializer.INSTANCE.sizeOf() + 2 * IntegerSerializer.INSTANCE.sizeOf();
+        for (Path root : roots) {
+            byte[] bytes = root.toString().getBytes(StandardCharsets.UTF_8);
+            encoded.add(bytes);
+            size += Integer.BYTES + bytes.length;
+        }
+        byte[] data = new byte[size];
+        System.arraycopy(HEADER, 0, data, 0, HEADER.length);
+        int offset = HEADER.length;
+        offset += LongSerializer.INSTANCE.serialize(length, data, offset);
+        offset += IntegerSerializer.INSTANCE.serialize(segment, data, offset);
+        offset += IntegerSerializer.INSTANCE.serialize(roots.size(), data, offset);
+        for (byte[] root : encoded) {
+            offset += IntegerSerializer.INSTANCE.serializeCompact(root.length, data, offset);
+            System.arraycopy(root, 0, data, offset, root.length);
+            offset += root.length;
+        }
+        Path temporary = directory.resolveSibling(directory.getFileName() + ".tmp");
+        Files.write(temporary, data);
+        Files.move(temporary, directory, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
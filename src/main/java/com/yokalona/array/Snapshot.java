@@ -0,0 +1,144 @@
+package com.yokalona.array;
+
+import com.yokalona.array.exceptions.DeserializationException;
+import com.yokalona.array.exceptions.SerializationException;
+import com.yokalona.array.configuration.File;
+import com.yokalona.array.io.DataLayout;
+import com.yokalona.array.io.FileStorage;
+import com.yokalona.array.io.Storage;
+import com.yokalona.array.serializers.FixedSizeSerializer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * <p>Point-in-time, read-only view of a {@link PersistentArray}. The view is kept at the chunk level: before a chunk
+ * of the array is updated in place for the first time after the snapshot was taken, its content is copied into a
+ * shadow file. Reads of such chunks are served from the shadow file, reads of any other chunk are served from the
+ * array itself.</p>
+ * <p>Snapshot can be read from any thread. Shadow file is removed once the snapshot is closed.</p>
+ */
+public final class Snapshot<Type> implements AutoCloseable {
+
+    private final int chunk;
+    private final int length;
+    private final Path path;
+    private final int[] slots;
+    private final byte[] buffer;
+    private final DataLayout layout;
+    private final Storage array;
+    private final Storage shadow;
+    private final FixedSizeSerializer<Type> type;
+    private final Consumer<Snapshot<Type>> release;
+    private final ReentrantLock reader = new ReentrantLock();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int copied;
+    private int preserved = -1;
+    private int cached = -1;
+    private boolean closed;
+
+    Snapshot(File array, Path shadow, int length, int chunk, FixedSizeSerializer<Type> type, DataLayout layout,
+             Consumer<Snapshot<Type>> release) throws IOException {
+        this.path = shadow;
+        this.type = type;
+        this.chunk = chunk;
+        this.length = length;
+        this.layout = layout;
+        this.release = release;
+        this.array = Storage.open(array);
+        this.shadow = new FileStorage(shadow, File.Mode.RW);
+        this.slots = new int[(length + chunk - 1) / chunk];
+        this.buffer = new byte[chunk * type.sizeOf()];
+        Arrays.fill(slots, -1);
+    }
+
+    public Type
+    get(int index) {
+        assert index >= 0 && index < length : index + " " + length;
+
+        int chunk = index / this.chunk;
+        reader.lock();
+        try {
+            if (cached != chunk) load(chunk);
+            return type.deserialize(buffer, (index % this.chunk) * type.sizeOf());
+        } catch (IOException e) {
+            throw new DeserializationException("during snapshot " + index + " deserialization", e);
+        } finally {
+            reader.unlock();
+        }
+    }
+
+    public int
+    length() {
+        return length;
+    }
+
+    /**
+     * Copies the chunk that contains the record into the shadow file, unless it was already copied. Must be called
+     * before the record is updated in place.
+     */
+    void
+    preserve(int index) {
+        int chunk = index / this.chunk;
+        if (chunk == preserved) return;
+        lock.writeLock().lock();
+        try {
+            if (closed) return;
+            if (slots[chunk] < 0) {
+                byte[] content = new byte[bytes(chunk)];
+                array.readFully(layout.address(chunk * this.chunk), content, 0, content.length);
+                shadow.write((long) copied * buffer.length, content);
+                slots[chunk] = copied++;
+            }
+            preserved = chunk;
+        } catch (IOException e) {
+            throw new SerializationException("during snapshot chunk " + chunk + " preservation", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void
+    load(int chunk) throws IOException {
+        lock.readLock().lock();
+        try {
+            int bytes = bytes(chunk);
+            if (slots[chunk] < 0) {
+                array.readFully(layout.address(chunk * this.chunk), buffer, 0, bytes);
+            } else {
+                shadow.readFully((long) slots[chunk] * buffer.length, buffer, 0, bytes);
+            }
+            cached = chunk;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int
+    bytes(int chunk) {
+        return (Math.min((chunk + 1) * this.chunk, length) - chunk * this.chunk) * type.sizeOf();
+    }
+
+    @Override
+    public void
+    close() {
+        release.accept(this);
+        lock.writeLock().lock();
+        try {
+            closed = true;
+            array.close();
+            shadow.close();
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new SerializationException("during snapshot closing", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
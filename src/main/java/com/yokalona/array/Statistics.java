@@ -0,0 +1,15 @@
+package com.yokalona.array;
+
+/**
+ * Counters of a {@link PersistentArray}. Updated by the thread, that owns the array, without any synchronization, so
+ * other threads observe approximate values.
+ */
+final class Statistics {
+
+    long hits;
+    long misses;
+    long writes;
+    long flushes;
+    long bytesRead;
+    long bytesWritten;
+}
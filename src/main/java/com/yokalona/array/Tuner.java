@@ -0,0 +1,116 @@
+package com.yokalona.array;
+
+import com.yokalona.array.configuration.BaseThreadFactory;
+import com.yokalona.array.configuration.Tuned;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Hill-climbing controller of read and write chunk sizes of a single {@link PersistentArray}. Cost of a chunk size
+ * is the amount of I/O per access observed during a period, where each positioned I/O is charged as {@link #SEEK}
+ * bytes on top of the bytes transferred:</p>
+ * <pre>
+ *     read  = (misses * SEEK + bytes read) / (hits + misses)
+ *     write = (flushes * SEEK + bytes written) / writes
+ * </pre>
+ * <p>Each period only one of the sizes is adjusted, so the effect of a step is not confused with the effect of the
+ * other. The size keeps moving in the same direction while the cost drops, turns back once the cost grows and stays
+ * while the cost is within {@link #TOLERANCE}. New sizes are requested from the array and applied by the thread, that
+ * owns it.</p>
+ */
+final class Tuner implements Runnable {
+
+    static final long SEEK = 16 * 1024;
+    private static final double TOLERANCE = .05;
+    private static final int SAMPLE = 64;
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        private final ThreadFactory factory = new BaseThreadFactory("yokabase", "tune");
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = factory.newThread(task);
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private final Tuned tuned;
+    private final boolean chunked;
+    private final PersistentArray<?> array;
+    private final Statistics statistics;
+    private final Climber read = new Climber();
+    private final Climber write = new Climber();
+
+    private long hits, misses, writes, flushes, bytesRead, bytesWritten;
+    private boolean turn;
+    private ScheduledFuture<?> schedule;
+
+    Tuner(PersistentArray<?> array, Statistics statistics, Tuned tuned, boolean chunked) {
+        this.tuned = tuned;
+        this.array = array;
+        this.chunked = chunked;
+        this.statistics = statistics;
+    }
+
+    void
+    start() {
+        long period = tuned.period().toNanos();
+        schedule = SCHEDULER.scheduleAtFixedRate(this, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    void
+    stop() {
+        if (schedule != null) schedule.cancel(false);
+    }
+
+    @Override
+    public void
+    run() {
+        long hits = statistics.hits - this.hits, misses = statistics.misses - this.misses,
+                writes = statistics.writes - this.writes, flushes = statistics.flushes - this.flushes,
+                bytesRead = statistics.bytesRead - this.bytesRead, bytesWritten = statistics.bytesWritten - this.bytesWritten;
+        boolean reads = hits + misses >= SAMPLE, written = chunked && writes >= SAMPLE;
+        if (!reads && !written) return;
+        turn = written && (!reads || !turn);
+        int max = Math.min(tuned.max(), array.memoryChunk()), min = Math.min(tuned.min(), max);
+        if (turn) {
+            int size = write.step(array.writeChunk(), (double) (flushes * SEEK + bytesWritten) / writes, min, max);
+            array.request(0, size, 0);
+            this.writes = statistics.writes;
+            this.flushes = statistics.flushes;
+            this.bytesWritten = statistics.bytesWritten;
+        } else {
+            int size = read.step(array.readChunk(), (double) (misses * SEEK + bytesRead) / (hits + misses), min, max);
+            array.request(size, 0, 0);
+            this.hits = statistics.hits;
+            this.misses = statistics.misses;
+            this.bytesRead = statistics.bytesRead;
+        }
+    }
+
+    private static final class Climber {
+
+        private int direction = 1;
+        private double cost = Double.NaN;
+
+        int
+        step(int size, double cost, int min, int max) {
+            double prior = this.cost;
+            this.cost = cost;
+            if (!Double.isNaN(prior)) {
+                if (Math.abs(cost - prior) <= prior * TOLERANCE) return Math.max(min, Math.min(max, size));
+                if (cost > prior) direction = -direction;
+            }
+            int next = Math.max(min, Math.min(max, direction > 0 ? size * 2 : size / 2));
+            if (next == size) {
+                direction = -direction;
+                next = Math.max(min, Math.min(max, direction > 0 ? size * 2 : size / 2));
+            }
+            return next;
+        }
+    }
+}
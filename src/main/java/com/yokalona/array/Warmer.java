@@ -0,0 +1,170 @@
+package com.yokalona.array;
+
+import com.yokalona.array.configuration.File;
+import com.yokalona.array.io.DataLayout;
+import com.yokalona.array.io.Storage;
+import com.yokalona.array.serializers.primitives.IntegerSerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Reads the hot set of a {@link PersistentArray} in the background. Hot set is a sorted list of indices of records,
+ * that were resident when the array was closed, it is kept in a sidecar file next to the array.</p>
+ * <p>Indices are coalesced into runs, each run is read with a single positional read, so readers neither share
+ * nor move the position of the array's own file. Runs are spread across {@code parallelism} readers, each running on
+ * its own virtual thread. Read runs are queued, it is up to the array to install them.</p>
+ */
+final class Warmer implements AutoCloseable {
+
+    private static final byte[] HEADER = new byte[]{-0x22, -0x36, -0x26, -0x06, -0x36, -0x23};
+    private static final String EXTENSION = ".hot";
+    private static final int GAP = 8;
+    private static final int RUN = 256;
+
+    private final File file;
+    private final int record;
+    private final DataLayout layout;
+    private final Runnable signal;
+    private final List<int[]> runs = new ArrayList<>();
+    private final Queue<Run> ready = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger remaining = new AtomicInteger();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * @param signal called every time a run is ready to be installed
+     */
+    Warmer(File file, int[] hot, int record, DataLayout layout, Runnable signal) {
+        this.file = file;
+        this.record = record;
+        this.layout = layout;
+        this.signal = signal;
+        for (int from = 0, to; from < hot.length; from = to) {
+            to = from + 1;
+            while (to < hot.length && hot[to] - hot[to - 1] <= GAP && hot[to] - hot[from] < RUN) to++;
+            runs.add(Arrays.copyOfRange(hot, from, to));
+        }
+    }
+
+    void
+    start(int parallelism) {
+        int readers = Math.min(parallelism, runs.size());
+        remaining.set(readers);
+        for (int reader = 0; reader < readers; reader++) {
+            int first = reader;
+            executor.execute(() -> read(first, readers));
+        }
+        executor.shutdown();
+    }
+
+    Run
+    poll() {
+        return ready.poll();
+    }
+
+    /**
+     * Tells whether every reader is over and every read run was polled.
+     */
+    boolean
+    done() {
+        return remaining.get() == 0 && ready.isEmpty();
+    }
+
+    private void
+    read(int first, int step) {
+        try (Storage storage = Storage.open(file)) {
+            for (int run = first; run < runs.size() && !Thread.currentThread().isInterrupted(); run += step) {
+                int[] indices = runs.get(run);
+                long address = layout.address(indices[0]);
+                byte[] data = new byte[(indices[indices.length - 1] - indices[0] + 1) * record];
+                storage.readFully(address, data, 0, data.length);
+                ready.add(new Run(indices, data));
+                signal.run();
+            }
+        } catch (IOException ignore) {
+            // warmup is best-effort, records are loaded on demand anyway
+        } finally {
+            remaining.decrementAndGet();
+            signal.run();
+        }
+    }
+
+    @Override
+    public void
+    close() {
+        executor.shutdownNow();
+        ready.clear();
+    }
+
+    /**
+     * Persists indices of the resident records, indices must be sorted.
+     */
+    static void
+    persist(Path array, int[] hot) {
+        byte[] data = new byte[HEADER.length + (hot.length + 1) * Integer.BYTES];
+        System.arraycopy(HEADER, 0, data, 0, HEADER.length);
+        int offset = HEADER.length;
+        offset += IntegerSerializer.INSTANCE.serializeCompact(hot.length, data, offset);
+        for (int index : hot) offset += IntegerSerializer.INSTANCE.serializeCompact(index, data, offset);
+        try {
+            Files.write(sidecar(array), data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads and removes hot set of the array, the hot set is empty if there is none or it does not match the array.
+     */
+    static int[]
+    take(Path array, int length) {
+        Path path = sidecar(array);
+        try {
+            if (!Files.exists(path)) return new int[0];
+            byte[] data = Files.readAllBytes(path);
+            Files.delete(path);
+            if (data.length < HEADER.length + Integer.BYTES) return new int[0];
+            if (!Arrays.equals(HEADER, 0, HEADER.length, data, 0, HEADER.length)) return new int[0];
+            int count = IntegerSerializer.INSTANCE.deserializeCompact(data, HEADER.length);
+            if (count < 0 || data.length != HEADER.length + (count + 1) * Integer.BYTES) return new int[0];
+            int[] hot = new int[count];
+            for (int index = 0, offset = HEADER.length + Integer.BYTES; index < count; index++, offset += Integer.BYTES) {
+                hot[index] = IntegerSerializer.INSTANCE.deserializeCompact(data, offset);
+                if (hot[index] < 0 || hot[index] >= length || (index > 0 && hot[index] <= hot[index - 1])) return new int[0];
+            }
+            return hot;
+        } catch (IOException ignore) {
+            return new int[0];
+        }
+    }
+
+    static void
+    delete(Path array) {
+        try {
+            Files.deleteIfExists(sidecar(array));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Path
+    sidecar(Path array) {
+        return array.resolveSibling(array.getFileName() + EXTENSION);
+    }
+
+    /**
+     * Consecutive records from {@code indices[0]} to the last index, only the listed indices are hot.
+     */
+    record Run(int[] indices, byte[] data) {
+    }
+}
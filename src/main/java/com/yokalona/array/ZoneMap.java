@@ -0,0 +1,221 @@
+package com.yokalona.array;
+
+import com.yokalona.array.configuration.Zoned;
+import com.yokalona.array.serializers.FixedSizeSerializer;
+import com.yokalona.array.serializers.primitives.BooleanSerializer;
+import com.yokalona.array.serializers.primitives.IntegerSerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+
+/**
+ * <p>Keeps min/max summaries for zones of consecutive records of a {@link PersistentArray}. A zone is <b>bounded</b>
+ * when its summary is known to cover every record stored within it, only bounded zones can be skipped. Summaries are
+ * only ever widened, so a stale summary is always a safe one.</p>
+ * <p>The map is persisted into a sidecar file next to the array. The sidecar is removed as soon as the map diverges
+ * from it, so a crash between two persists leaves all zones unbounded instead of leaving a wrong summary behind. The
+ * sidecar is {@link #discard(Path) discarded} as well, once the array is opened without zones, as such an array changes
+ * its records without widening summaries. The order of zones is not persisted, the array must be opened with the same
+ * order every time it is opened with zones.</p>
+ */
+final class ZoneMap<Type> {
+
+    private static final byte[] HEADER = new byte[]{-0x22, -0x36, -0x26, -0x06, -0x36, -0x25};
+    private static final String EXTENSION = ".zones";
+
+    private final int size;
+    private final int length;
+    private final Path path;
+    private final Object[] min;
+    private final Object[] max;
+    private final BitSet bounded;
+    private final Comparator<Type> order;
+    private final FixedSizeSerializer<Type> type;
+
+    private boolean dirty;
+
+    @SuppressWarnings("unchecked")
+    private ZoneMap(int length, Zoned zones, FixedSizeSerializer<Type> type, Path array) {
+        this.type = type;
+        this.length = length;
+        this.size = zones.size();
+        this.order = (Comparator<Type>) zones.order();
+        this.path = array.resolveSibling(array.getFileName() + EXTENSION);
+        int count = (length + size - 1) / size;
+        this.min = new Object[count];
+        this.max = new Object[count];
+        this.bounded = new BitSet(count);
+    }
+
+    /**
+     * Reads summaries previously persisted for the array, if there are no such or they do not match the array, every
+     * zone is considered to be unbounded.
+     */
+    static <Type> ZoneMap<Type>
+    open(int length, Zoned zones, FixedSizeSerializer<Type> type, Path array) {
+        ZoneMap<Type> map = new ZoneMap<>(length, zones, type, array);
+        try {
+            if (Files.exists(map.path)) map.read(Files.readAllBytes(map.path));
+        } catch (IOException ignore) {
+            map.bounded.clear();
+        }
+        return map;
+    }
+
+    /**
+     * Removes summaries persisted for the array, if there are any.
+     */
+    static void
+    discard(Path array) {
+        try {
+            Files.deleteIfExists(array.resolveSibling(array.getFileName() + EXTENSION));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    int
+    zones() {
+        return min.length;
+    }
+
+    int
+    size() {
+        return size;
+    }
+
+    Comparator<Type>
+    order() {
+        return order;
+    }
+
+    int
+    zone(int index) {
+        return index / size;
+    }
+
+    /**
+     * Marks every zone as bounded and empty, this is valid only for an array that holds nothing but nulls.
+     */
+    void
+    clear() {
+        Arrays.fill(min, null);
+        Arrays.fill(max, null);
+        bounded.set(0, zones());
+        changed();
+    }
+
+    void
+    widen(int index, Type value) {
+        if (value == null) return;
+        int zone = zone(index);
+        if (min[zone] == null || order.compare(value, min(zone)) < 0) {
+            min[zone] = value;
+            changed();
+        }
+        if (max[zone] == null || order.compare(value, max(zone)) > 0) {
+            max[zone] = value;
+            changed();
+        }
+    }
+
+    /**
+     * Merges complete summary of a zone, after that the zone is considered to be bounded.
+     */
+    void
+    summarize(int zone, Type min, Type max) {
+        if (min != null) widen(zone * size, min);
+        if (max != null) widen(zone * size, max);
+        if (!bounded.get(zone)) {
+            bounded.set(zone);
+            changed();
+        }
+    }
+
+    boolean
+    bounded(int zone) {
+        return bounded.get(zone);
+    }
+
+    boolean
+    mayContain(int zone, Type from, Type to) {
+        if (!bounded.get(zone)) return true;
+        if (min[zone] == null) return false;
+        return order.compare(max(zone), from) >= 0 && order.compare(min(zone), to) <= 0;
+    }
+
+    void
+    persist() {
+        if (!dirty) return;
+        int record = BooleanSerializer.INSTANCE.sizeOf() + 2 * type.sizeOf();
+        byte[] data = new byte[HEADER.length + 2 * IntegerSerializer.INSTANCE.sizeOf() + zones() * record];
+        System.arraycopy(HEADER, 0, data, 0, HEADER.length);
+        int offset = HEADER.length;
+        offset += IntegerSerializer.INSTANCE.serialize(length, data, offset);
+        offset += IntegerSerializer.INSTANCE.serialize(size, data, offset);
+        for (int zone = 0; zone < zones(); zone++) {
+            offset += BooleanSerializer.INSTANCE.serialize(bounded.get(zone), data, offset);
+            type.serialize(min(zone), data, offset);
+            type.serialize(max(zone), data, offset += type.sizeOf());
+            offset += type.sizeOf();
+        }
+        try {
+            Files.write(path, data);
+            dirty = false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void
+    delete() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void
+    read(byte[] data) {
+        if (data.length < HEADER.length + 2 * IntegerSerializer.INSTANCE.sizeOf()) return;
+        if (!Arrays.equals(HEADER, 0, HEADER.length, data, 0, HEADER.length)) return;
+        int offset = HEADER.length;
+        Integer length = IntegerSerializer.INSTANCE.deserialize(data, offset);
+        Integer size = IntegerSerializer.INSTANCE.deserialize(data, offset += IntegerSerializer.INSTANCE.sizeOf());
+        offset += IntegerSerializer.INSTANCE.sizeOf();
+        int record = BooleanSerializer.INSTANCE.sizeOf() + 2 * type.sizeOf();
+        if (length == null || length != this.length || size == null || size != this.size
+                || data.length != offset + zones() * record) return;
+        for (int zone = 0; zone < zones(); zone++) {
+            if (Boolean.TRUE.equals(BooleanSerializer.INSTANCE.deserialize(data, offset))) bounded.set(zone);
+            min[zone] = type.deserialize(data, offset += BooleanSerializer.INSTANCE.sizeOf());
+            max[zone] = type.deserialize(data, offset += type.sizeOf());
+            offset += type.sizeOf();
+        }
+    }
+
+    private void
+    changed() {
+        if (dirty) return;
+        dirty = true;
+        delete();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Type
+    min(int zone) {
+        return (Type) min[zone];
+    }
+
+    @SuppressWarnings("unchecked")
+    private Type
+    max(int zone) {
+        return (Type) max[zone];
+    }
+}
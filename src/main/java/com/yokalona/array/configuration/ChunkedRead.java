@@ -1,9 +1,13 @@
 package com.yokalona.array.configuration;
 
-public record ChunkedRead(int size, boolean breakOnLoaded, boolean forceReload) {
+/**
+ * @param inflight maximum number of asynchronous reads in flight, see
+ *                 {@link com.yokalona.array.PersistentArray#getAsync(int)}
+ */
+public record ChunkedRead(int size, boolean breakOnLoaded, boolean forceReload, int inflight) {
 
     public ChunkedRead {
-        assert size > 0;
+        assert size > 0 && inflight > 0;
     }
 
     public static ChunkedReadBuilder
@@ -14,16 +18,17 @@ public record ChunkedRead(int size, boolean breakOnLoaded, boolean forceReload)
     public static class ChunkedReadBuilder {
         private boolean breakOnLoaded;
         private boolean forceReload;
+        private int inflight = 64;
 
         public ChunkedRead
         chunked(int size) {
             assert size > 0;
-            return new ChunkedRead(size, breakOnLoaded, forceReload);
+            return new ChunkedRead(size, breakOnLoaded, forceReload, inflight);
         }
 
         public ChunkedRead
         linear() {
-            return new ChunkedRead(1, breakOnLoaded, forceReload);
+            return new ChunkedRead(1, breakOnLoaded, forceReload, inflight);
         }
 
         public ChunkedReadBuilder
@@ -37,6 +42,13 @@ public record ChunkedRead(int size, boolean breakOnLoaded, boolean forceReload)
             this.forceReload = true;
             return this;
         }
+
+        public ChunkedReadBuilder
+        inflight(int inflight) {
+            assert inflight > 0;
+            this.inflight = inflight;
+            return this;
+        }
     }
 
 }
@@ -4,6 +4,7 @@ import com.yokalona.array.exceptions.ReadChunkLimitExceededException;
 import com.yokalona.array.exceptions.WriteChunkLimitExceededException;
 import com.yokalona.array.subscriber.Subscriber;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Executor;
@@ -12,7 +13,9 @@ import java.util.concurrent.ThreadFactory;
 
 import static java.util.Collections.unmodifiableList;
 
-public record Configuration(File file, Executor executor, ChunkedRead read, ChunkedWrite write, Chunked memory, List<Subscriber> subscribers) {
+public record Configuration(File file, Executor executor, ChunkedRead read, ChunkedWrite write, Chunked memory,
+                            Zoned zones, Journal journal, Durability durability, Dispatch dispatch,
+                            boolean managed, Tuned tuned, Warmup warmup, List<Subscriber> subscribers) {
 
     private static final ThreadFactory threadFactory = new BaseThreadFactory("yokabase", "notify");
 
@@ -21,6 +24,12 @@ public record Configuration(File file, Executor executor, ChunkedRead read, Chun
         if (write.size() > memory.size()) throw new WriteChunkLimitExceededException();
     }
 
+    public Configuration
+    relocate(Path path) {
+        return new Configuration(file.relocate(path), executor, read, write, memory, zones, journal, durability, dispatch,
+                managed, tuned, warmup, subscribers);
+    }
+
     public static MemoryLeft
     configure(File file) {
         return new ConfigurationBuilder(file);
@@ -43,6 +52,23 @@ public record Configuration(File file, Executor executor, ChunkedRead read, Chun
 
         ChunkLeft executor(Executor executor);
 
+        ChunkLeft zones(Zoned zones);
+
+        ChunkLeft journal(Journal journal);
+
+        ChunkLeft durability(Durability durability);
+
+        ChunkLeft dispatch(Dispatch dispatch);
+
+        /**
+         * Registers an MBean for each array, that uses this configuration, while the array is open.
+         */
+        ChunkLeft managed(boolean managed);
+
+        ChunkLeft tuned(Tuned tuned);
+
+        ChunkLeft warmup(Warmup warmup);
+
         ReadLeft write(ChunkedWrite write);
 
         WriteLeft read(ChunkedRead read);
@@ -52,6 +78,13 @@ public record Configuration(File file, Executor executor, ChunkedRead read, Chun
         private final List<Subscriber> subscribers = new ArrayList<>();
         private Chunked memory;
         private final File file;
+        private Zoned zones = Zoned.unzoned();
+        private Journal journal = Journal.unjournaled();
+        private Durability durability;
+        private Dispatch dispatch = Dispatch.synchronous();
+        private boolean managed;
+        private Tuned tuned = Tuned.untuned();
+        private Warmup warmup = Warmup.cold();
         private Executor executor = Executors.newSingleThreadExecutor(threadFactory);
 
         public ConfigurationBuilder(File file) {
@@ -78,14 +111,73 @@ public record Configuration(File file, Executor executor, ChunkedRead read, Chun
             return this;
         }
 
+        @Override
+        public ChunkLeft
+        zones(Zoned zones) {
+            this.zones = zones;
+            return this;
+        }
+
+        @Override
+        public ChunkLeft
+        journal(Journal journal) {
+            this.journal = journal;
+            return this;
+        }
+
+        @Override
+        public ChunkLeft
+        durability(Durability durability) {
+            this.durability = durability;
+            return this;
+        }
+
+        @Override
+        public ChunkLeft
+        dispatch(Dispatch dispatch) {
+            this.dispatch = dispatch;
+            return this;
+        }
+
+        @Override
+        public ChunkLeft
+        managed(boolean managed) {
+            this.managed = managed;
+            return this;
+        }
+
+        @Override
+        public ChunkLeft
+        tuned(Tuned tuned) {
+            this.tuned = tuned;
+            return this;
+        }
+
+        @Override
+        public ChunkLeft
+        warmup(Warmup warmup) {
+            this.warmup = warmup;
+            return this;
+        }
+
         public WriteLeft
         read(ChunkedRead read) {
-            return write -> new Configuration(file, executor, read, write, memory, unmodifiableList(subscribers));
+            return write -> new Configuration(file, executor, read, write, memory, zones, journal,
+                    durability(), dispatch, managed, tuned, warmup,
+                    unmodifiableList(subscribers));
         }
 
         public ReadLeft
         write(ChunkedWrite write) {
-            return read -> new Configuration(file, executor, read, write, memory, unmodifiableList(subscribers));
+            return read -> new Configuration(file, executor, read, write, memory, zones, journal,
+                    durability(), dispatch, managed, tuned, warmup,
+                    unmodifiableList(subscribers));
+        }
+
+        private Durability
+        durability() {
+            if (durability != null) return durability;
+            return journal.journaled() ? Durability.flush() : Durability.none();
         }
     }
 
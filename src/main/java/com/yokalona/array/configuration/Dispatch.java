@@ -0,0 +1,28 @@
+package com.yokalona.array.configuration;
+
+/**
+ * Describes how events are delivered to subscribers. Synchronous subscribers are called on the thread, that caused the
+ * event. Asynchronous subscribers are called on the configured executor, events are buffered in a ring of
+ * {@code capacity} slots, an event is published only once there is a free slot.
+ */
+public record Dispatch(boolean asynchronous, int capacity) {
+
+    public Dispatch {
+        assert !asynchronous || (capacity > 0 && Integer.bitCount(capacity) == 1);
+    }
+
+    public static Dispatch
+    synchronous() {
+        return new Dispatch(false, 0);
+    }
+
+    /**
+     * @param capacity of the ring, is rounded up to the nearest power of two
+     */
+    public static Dispatch
+    asynchronous(int capacity) {
+        if (capacity <= 0) return synchronous();
+        else if (capacity == 1) return new Dispatch(true, 1);
+        else return new Dispatch(true, Integer.highestOneBit(capacity - 1) << 1);
+    }
+}
@@ -0,0 +1,38 @@
+package com.yokalona.array.configuration;
+
+import java.time.Duration;
+
+/**
+ * Describes when written records are synced to the storage device:
+ * <ul>
+ *     <li>{@link Level#NONE} - never explicitly, it is up to the operating system</li>
+ *     <li>{@link Level#FLUSH} - once per each flush, before the flush returns</li>
+ *     <li>{@link Level#GROUP} - asynchronously, flushes within the same {@code window} share a single sync</li>
+ * </ul>
+ * Unless specified explicitly, journaled arrays sync on each flush and non-journaled arrays never sync.
+ */
+public record Durability(Level level, Duration window) {
+
+    public Durability {
+        assert level != null && (level != Level.GROUP || (window != null && !window.isNegative()));
+    }
+
+    public static Durability
+    none() {
+        return new Durability(Level.NONE, Duration.ZERO);
+    }
+
+    public static Durability
+    flush() {
+        return new Durability(Level.FLUSH, Duration.ZERO);
+    }
+
+    public static Durability
+    group(Duration window) {
+        return new Durability(Level.GROUP, window);
+    }
+
+    public enum Level {
+        NONE, FLUSH, GROUP
+    }
+}
@@ -4,7 +4,7 @@ import java.nio.file.Path;
 
 import static com.yokalona.array.configuration.File.Mode.RW;
 
-public record File(Path path, Mode mode, int buffer, boolean cached) {
+public record File(Path path, Mode mode, int buffer, boolean cached, Backend backend) {
     public enum Mode {
         R("read only"), RW("read/write"), RWS("sync read/write"), RWD("dsync read/write");
 
@@ -20,6 +20,18 @@ public record File(Path path, Mode mode, int buffer, boolean cached) {
         }
     }
 
+    /**
+     * Implementation of the {@link com.yokalona.array.io.Storage storage}, that backs the file.
+     */
+    public enum Backend {
+        FILE, CHANNEL, MAPPED, MEMORY, DIRECT
+    }
+
+    public File
+    relocate(Path path) {
+        return new File(path, mode, buffer, cached, backend);
+    }
+
     public static FileConfigurer
     file(Path path) {
         return new FileConfigurer(path);
@@ -28,12 +40,14 @@ public record File(Path path, Mode mode, int buffer, boolean cached) {
     public static class FileConfigurer {
         private Mode mode;
         private int buffer;
+        private Backend backend;
         private final Path path;
 
         public FileConfigurer(Path path) {
             this.mode = RW;
             this.path = path;
             this.buffer = 8192;
+            this.backend = Backend.FILE;
         }
 
         public FileConfigurer
@@ -48,14 +62,28 @@ public record File(Path path, Mode mode, int buffer, boolean cached) {
             return this;
         }
 
+        public FileConfigurer
+        backend(Backend backend) {
+            this.backend = backend;
+            return this;
+        }
+
+        /**
+         * Bypasses the page cache, see {@link com.yokalona.array.io.DirectStorage}.
+         */
+        public FileConfigurer
+        direct() {
+            return backend(Backend.DIRECT);
+        }
+
         public File
         cached() {
-            return new File(this.path, this.mode, this.buffer, true);
+            return new File(this.path, this.mode, this.buffer, true, this.backend);
         }
 
         public File
         uncached() {
-            return new File(this.path, this.mode, this.buffer, false);
+            return new File(this.path, this.mode, this.buffer, false, this.backend);
         }
 
     }
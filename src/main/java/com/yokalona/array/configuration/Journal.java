@@ -0,0 +1,23 @@
+package com.yokalona.array.configuration;
+
+/**
+ * Describes an append-only redo log, that is written and synced before any record is updated in place. Once the log
+ * outgrows {@code checkpoint} bytes, the array is synced and the log is truncated.
+ */
+public record Journal(boolean journaled, long checkpoint) {
+
+    public Journal {
+        assert !journaled || checkpoint > 0;
+    }
+
+    public static Journal
+    unjournaled() {
+        return new Journal(false, 0);
+    }
+
+    public static Journal
+    journaled(long checkpoint) {
+        if (checkpoint > 0) return new Journal(true, checkpoint);
+        else return unjournaled();
+    }
+}
@@ -0,0 +1,25 @@
+package com.yokalona.array.configuration;
+
+import java.time.Duration;
+
+/**
+ * Describes automatic tuning of read and write chunk sizes. Every {@code period} the observed I/O cost per access is
+ * compared with the cost observed for the prior size, and the size is doubled or halved accordingly. Sizes are kept
+ * within {@code [min, max]} and never exceed the memory chunk.
+ */
+public record Tuned(boolean tuned, Duration period, int min, int max) {
+
+    public Tuned {
+        assert !tuned || (period != null && !period.isNegative() && !period.isZero() && min > 0 && min <= max);
+    }
+
+    public static Tuned
+    untuned() {
+        return new Tuned(false, Duration.ZERO, 0, 0);
+    }
+
+    public static Tuned
+    tuned(Duration period, int min, int max) {
+        return new Tuned(true, period, min, max);
+    }
+}
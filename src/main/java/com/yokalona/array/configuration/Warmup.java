@@ -0,0 +1,24 @@
+package com.yokalona.array.configuration;
+
+/**
+ * Describes warmup of an array. Warm array persists indices of its resident records on close, once reopened, those
+ * records are read back in the background by {@code parallelism} concurrent readers, while the array already serves
+ * requests.
+ */
+public record Warmup(boolean warm, int parallelism) {
+
+    public Warmup {
+        assert !warm || parallelism > 0;
+    }
+
+    public static Warmup
+    cold() {
+        return new Warmup(false, 0);
+    }
+
+    public static Warmup
+    warm(int parallelism) {
+        if (parallelism > 0) return new Warmup(true, parallelism);
+        else return cold();
+    }
+}
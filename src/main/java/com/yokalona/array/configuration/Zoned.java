@@ -0,0 +1,25 @@
+package com.yokalona.array.configuration;
+
+import java.util.Comparator;
+
+/**
+ * Describes per-zone min/max summaries of an array. Each zone covers {@code size} consecutive records, the summary is
+ * built using {@code order} and is used to skip zones that cannot contain a value of interest.
+ */
+public record Zoned(boolean zoned, int size, Comparator<?> order) {
+
+    public Zoned {
+        assert !zoned || (size > 0 && order != null);
+    }
+
+    public static Zoned
+    unzoned() {
+        return new Zoned(false, 0, null);
+    }
+
+    public static <Type> Zoned
+    zoned(int size, Comparator<Type> order) {
+        if (size > 0) return new Zoned(true, size, order);
+        else return unzoned();
+    }
+}
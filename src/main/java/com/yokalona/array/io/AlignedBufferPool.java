@@ -0,0 +1,60 @@
+package com.yokalona.array.io;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of direct buffers, which address and size are multiples of the alignment, as required by direct I/O. Pools are
+ * shared by alignment, since allocation of direct memory is expensive and is not reclaimed promptly.
+ */
+public final class AlignedBufferPool {
+
+    private static final int SIZE = 64 * 1024;
+    private static final int CAPACITY = 16;
+    private static final Map<Integer, AlignedBufferPool> POOLS = new ConcurrentHashMap<>();
+
+    private final int size;
+    private final int alignment;
+    private final AtomicInteger pooled = new AtomicInteger();
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+
+    private AlignedBufferPool(int alignment, int size) {
+        assert alignment > 0 && Integer.bitCount(alignment) == 1 && size % alignment == 0;
+
+        this.size = size;
+        this.alignment = alignment;
+    }
+
+    public static AlignedBufferPool
+    of(int alignment) {
+        return POOLS.computeIfAbsent(alignment, ignore -> new AlignedBufferPool(alignment, Math.max(alignment, SIZE)));
+    }
+
+    public ByteBuffer
+    acquire() {
+        ByteBuffer buffer = buffers.poll();
+        if (buffer == null) return ByteBuffer.allocateDirect(size + alignment).alignedSlice(alignment).slice(0, size);
+        pooled.decrementAndGet();
+        return buffer.clear();
+    }
+
+    public void
+    release(ByteBuffer buffer) {
+        if (pooled.incrementAndGet() <= CAPACITY) buffers.offer(buffer);
+        else pooled.decrementAndGet();
+    }
+
+    public int
+    size() {
+        return size;
+    }
+
+    public int
+    alignment() {
+        return alignment;
+    }
+}
@@ -3,31 +3,27 @@ package com.yokalona.array.io;
 import com.yokalona.annotations.TestOnly;
 import com.yokalona.array.configuration.File;
 
-import java.io.ByteArrayInputStream;
-import java.io.FileNotFoundException;
-import java.io.RandomAccessFile;
+import java.io.IOException;
 
 public class CachedFile implements AutoCloseable {
     private final File configuration;
-    private RandomAccessFile file;
+    private Storage file;
 
     public CachedFile(File configuration) {
         this.configuration = configuration;
     }
 
     @TestOnly
-    public CachedFile(File configuration, RandomAccessFile file) {
+    public CachedFile(File configuration, Storage file) {
         this.file = file;
         this.configuration = configuration;
     }
 
-    public RandomAccessFile
+    public Storage
     get() {
         try {
-            return (!configuration.cached() || file == null)
-                    ? file = new RandomAccessFile(configuration.path().toFile(), configuration.mode().mode())
-                    : file;
-        } catch (FileNotFoundException e) {
+            return (!configuration.cached() || file == null) ? file = Storage.open(configuration) : file;
+        } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
@@ -61,7 +57,7 @@ public class CachedFile implements AutoCloseable {
         }
     }
 
-    public RandomAccessFile
+    public Storage
     peek() {
         return file;
     }
@@ -0,0 +1,91 @@
+package com.yokalona.array.io;
+
+import com.yokalona.array.configuration.File;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.DSYNC;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.SYNC;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Storage over a {@link FileChannel}. Positional transfers do not share any state, so the storage can be used by
+ * several threads at once without locking.
+ */
+public class ChannelStorage implements Storage {
+
+    private final FileChannel channel;
+
+    public ChannelStorage(Path path, File.Mode mode) throws IOException {
+        this.channel = FileChannel.open(path, options(mode));
+    }
+
+    @Override
+    public int
+    read(long position, byte[] data, int offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(data, offset, length);
+        int read = channel.read(buffer, position);
+        if (read <= 0) return read;
+        while (buffer.hasRemaining()) {
+            int next = channel.read(buffer, position + buffer.position() - offset);
+            if (next <= 0) break;
+        }
+        return buffer.position() - offset;
+    }
+
+    @Override
+    public void
+    write(long position, byte[] data, int offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(data, offset, length);
+        while (buffer.hasRemaining()) channel.write(buffer, position + buffer.position() - offset);
+    }
+
+    @Override
+    public void
+    force(boolean metadata) throws IOException {
+        channel.force(metadata);
+    }
+
+    @Override
+    public long
+    size() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public void
+    truncate(long size) throws IOException {
+        channel.truncate(size);
+    }
+
+    @Override
+    public void
+    close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Open options, that match the semantics of {@link java.io.RandomAccessFile} modes.
+     */
+    static Set<OpenOption>
+    options(File.Mode mode) {
+        Set<OpenOption> options = new HashSet<>();
+        options.add(READ);
+        switch (mode) {
+            case R -> {
+            }
+            case RW -> options.addAll(Set.of(WRITE, CREATE));
+            case RWS -> options.addAll(Set.of(WRITE, CREATE, SYNC));
+            case RWD -> options.addAll(Set.of(WRITE, CREATE, DSYNC));
+        }
+        return options;
+    }
+}
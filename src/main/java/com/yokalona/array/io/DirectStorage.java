@@ -0,0 +1,174 @@
+package com.yokalona.array.io;
+
+import com.sun.nio.file.ExtendedOpenOption;
+import com.yokalona.array.configuration.File;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * <p>Storage, that bypasses the page cache of the operating system, so the array's own memory is the only cache of its
+ * records. Reads and writes are routed through a channel opened with {@code ExtendedOpenOption.DIRECT}, which requires
+ * both the address of a buffer and the position and length of each transfer to be aligned to the block size of the
+ * file store. Any transfer is widened to the enclosing blocks, partially overwritten blocks are read first.</p>
+ * <p>The file keeps its exact length, since it is truncated back after a write, that extends it by a partial block.
+ * If the file store does not support direct I/O, the file falls back to regular I/O with the same aligned transfers,
+ * see {@link #direct()}.</p>
+ * <p>Alignment is handled by the storage itself rather than by {@link InputReader} and {@link OutputWriter}, so they,
+ * as well as layouts, snapshots and the redo log replay, stay unaware of the backend they go through.</p>
+ */
+public class DirectStorage implements Storage {
+
+    private final int block;
+    private final boolean direct;
+    private final FileChannel channel;
+    private final AlignedBufferPool pool;
+
+    public DirectStorage(Path path, File.Mode mode) throws IOException {
+        this.block = block(path);
+        this.pool = AlignedBufferPool.of(block);
+        Set<OpenOption> options = ChannelStorage.options(mode);
+        FileChannel channel;
+        boolean direct;
+        try {
+            Set<OpenOption> unbuffered = new HashSet<>(options);
+            unbuffered.add(ExtendedOpenOption.DIRECT);
+            channel = FileChannel.open(path, unbuffered);
+            direct = true;
+        } catch (UnsupportedOperationException | IOException e) {
+            channel = FileChannel.open(path, options);
+            direct = false;
+        }
+        this.channel = channel;
+        this.direct = direct;
+    }
+
+    /**
+     * Tells whether the page cache is actually bypassed.
+     */
+    public boolean
+    direct() {
+        return direct;
+    }
+
+    public int
+    block() {
+        return block;
+    }
+
+    @Override
+    public void
+    force(boolean metadata) throws IOException {
+        channel.force(metadata);
+    }
+
+    @Override
+    public long
+    size() throws IOException {
+        return channel.size();
+    }
+
+    @Override
+    public void
+    truncate(long size) throws IOException {
+        channel.truncate(size);
+    }
+
+    @Override
+    public void
+    close() throws IOException {
+        channel.close();
+    }
+
+    @Override
+    public int
+    read(long position, byte[] data, int offset, int length) throws IOException {
+        long size = channel.size();
+        if (position >= size) return -1;
+        length = (int) Math.min(length, size - position);
+        ByteBuffer buffer = pool.acquire();
+        int done = 0;
+        try {
+            while (done < length) {
+                long at = position + done, start = floor(at);
+                int skip = (int) (at - start);
+                int span = (int) Math.min(buffer.capacity(), ceil(skip + (long) (length - done)));
+                int read = fill(buffer.clear().limit(span), start);
+                int available = Math.min(read - skip, length - done);
+                if (available <= 0) break;
+                buffer.get(skip, data, offset + done, available);
+                done += available;
+            }
+        } finally {
+            pool.release(buffer);
+        }
+        return done == 0 ? -1 : done;
+    }
+
+    @Override
+    public void
+    write(long position, byte[] data, int offset, int length) throws IOException {
+        long size = channel.size();
+        ByteBuffer buffer = pool.acquire();
+        int done = 0;
+        try {
+            while (done < length) {
+                long at = position + done, start = floor(at);
+                int skip = (int) (at - start);
+                int count = Math.min(length - done, buffer.capacity() - skip);
+                int span = (int) ceil(skip + (long) count);
+                if (skip != 0) fill(buffer.clear().limit(block), start);
+                if ((skip + count) % block != 0 && (span > block || skip == 0))
+                    fill(buffer.clear().position(span - block).limit(span).slice(), start + span - block);
+                buffer.clear().put(skip, data, offset + done, count).limit(span);
+                while (buffer.hasRemaining()) channel.write(buffer, start + buffer.position());
+                done += count;
+            }
+        } finally {
+            pool.release(buffer);
+        }
+        long end = Math.max(size, position + length);
+        if (channel.size() > end) channel.truncate(end);
+    }
+
+    /**
+     * Reads into the buffer from an aligned address till the buffer is full or the end of the file, remaining part of
+     * the buffer is zeroed. Only the last block of the file might be read partially.
+     *
+     * @return number of bytes read
+     */
+    private int
+    fill(ByteBuffer buffer, long address) throws IOException {
+        int start = buffer.position();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, address + buffer.position() - start) < 0) break;
+            if ((buffer.position() - start) % block != 0) break;
+        }
+        int read = buffer.position() - start;
+        while (buffer.hasRemaining()) buffer.put((byte) 0);
+        return read;
+    }
+
+    private long
+    floor(long address) {
+        return address & -block;
+    }
+
+    private long
+    ceil(long address) {
+        return (address + block - 1) & -block;
+    }
+
+    private static int
+    block(Path path) throws IOException {
+        Path store = Files.exists(path) ? path : path.toAbsolutePath().getParent();
+        long block = Files.getFileStore(store).getBlockSize();
+        return block > 0 && Long.bitCount(block) == 1 && block <= 1 << 16 ? (int) block : 4096;
+    }
+}
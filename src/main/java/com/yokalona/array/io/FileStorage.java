@@ -0,0 +1,76 @@
+package com.yokalona.array.io;
+
+import com.yokalona.array.configuration.File;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Storage over a {@link RandomAccessFile}. The file has a single position, so every access is a seek followed by a
+ * transfer, both done under the lock of the storage. The lock is not a monitor, so a virtual thread, that waits for it
+ * or holds it during I/O, does not pin its carrier.
+ */
+public class FileStorage implements Storage {
+
+    private final RandomAccessFile file;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public FileStorage(Path path, File.Mode mode) throws IOException {
+        this.file = new RandomAccessFile(path.toFile(), mode.mode());
+    }
+
+    @Override
+    public int
+    read(long position, byte[] data, int offset, int length) throws IOException {
+        lock.lock();
+        try {
+            file.seek(position);
+            return file.read(data, offset, length);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void
+    write(long position, byte[] data, int offset, int length) throws IOException {
+        lock.lock();
+        try {
+            file.seek(position);
+            file.write(data, offset, length);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void
+    force(boolean metadata) throws IOException {
+        file.getChannel().force(metadata);
+    }
+
+    @Override
+    public long
+    size() throws IOException {
+        return file.length();
+    }
+
+    @Override
+    public void
+    truncate(long size) throws IOException {
+        lock.lock();
+        try {
+            file.setLength(size);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void
+    close() throws IOException {
+        file.close();
+    }
+}
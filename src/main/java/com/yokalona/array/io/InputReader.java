@@ -1,16 +1,15 @@
 package com.yokalona.array.io;
 
 import java.io.IOException;
-import java.io.RandomAccessFile;
 
 public class InputReader {
     private int pointer = 0;
     private long address = 0;
     private final byte[] buffer;
-    private final RandomAccessFile raf;
+    private final Storage storage;
 
-    public InputReader(RandomAccessFile raf, byte[] buffer) {
-        this.raf = raf;
+    public InputReader(Storage storage, byte[] buffer) {
+        this.storage = storage;
         this.buffer = buffer;
         pointer = buffer.length;
     }
@@ -38,7 +37,8 @@ public class InputReader {
 
     public void
     refill() throws IOException {
-        raf.read(buffer);
+        int read = storage.read(address, buffer, 0, buffer.length);
+        if (read > 0) address += read;
         pointer = 0;
     }
 
@@ -48,11 +48,9 @@ public class InputReader {
     }
 
     public void
-    seek(long address) throws IOException {
-        raf.seek(address);
-        if (address < this.address + pointer) pointer = (int) (this.address - address);
-        else pointer = buffer.length;
+    seek(long address) {
         this.address = address;
+        invalidate();
     }
 
 }
@@ -0,0 +1,145 @@
+package com.yokalona.array.io;
+
+import com.yokalona.array.configuration.File;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * <p>Storage over a memory-mapped file. The file is mapped lazily in fixed-size regions, so files larger than a single
+ * mapping are supported and only touched regions take address space. Reads and writes within the file are plain
+ * memory copies.</p>
+ * <p>Mapping never extends the file, a write past the end goes through the channel and the last region is remapped on
+ * the next access. Mappings are dropped on truncation, since touching a mapped page past the end of the file is
+ * fatal. Accesses within the file run concurrently, only extension, truncation and closing are exclusive.</p>
+ */
+public class MappedStorage implements Storage {
+
+    private static final int REGION = 1 << 26;
+
+    private final FileChannel channel;
+    private final FileChannel.MapMode mode;
+    private final Map<Integer, MappedByteBuffer> regions = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile long size;
+
+    public MappedStorage(Path path, File.Mode mode) throws IOException {
+        this.channel = FileChannel.open(path, ChannelStorage.options(mode));
+        this.mode = mode == File.Mode.R ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE;
+        this.size = channel.size();
+    }
+
+    @Override
+    public int
+    read(long position, byte[] data, int offset, int length) throws IOException {
+        lock.readLock().lock();
+        try {
+            if (position >= size) return -1;
+            length = (int) Math.min(length, size - position);
+            for (int done = 0, count; done < length; done += count) {
+                long at = position + done;
+                int skip = (int) (at % REGION);
+                count = Math.min(length - done, REGION - skip);
+                region(at).get(skip, data, offset + done, count);
+            }
+            return length;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void
+    write(long position, byte[] data, int offset, int length) throws IOException {
+        int mapped;
+        lock.readLock().lock();
+        try {
+            mapped = (int) Math.max(0, Math.min(length, size - position));
+            for (int done = 0, count; done < mapped; done += count) {
+                long at = position + done;
+                int skip = (int) (at % REGION);
+                count = Math.min(mapped - done, REGION - skip);
+                region(at).put(skip, data, offset + done, count);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (mapped == length) return;
+        lock.writeLock().lock();
+        try {
+            ByteBuffer tail = ByteBuffer.wrap(data, offset + mapped, length - mapped);
+            long start = position + mapped;
+            while (tail.hasRemaining()) channel.write(tail, start + tail.position() - offset - mapped);
+            size = Math.max(size, position + length);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void
+    force(boolean metadata) throws IOException {
+        lock.readLock().lock();
+        try {
+            if (mode == FileChannel.MapMode.READ_WRITE) for (MappedByteBuffer region : regions.values()) region.force();
+        } finally {
+            lock.readLock().unlock();
+        }
+        channel.force(metadata);
+    }
+
+    @Override
+    public long
+    size() {
+        return size;
+    }
+
+    @Override
+    public void
+    truncate(long size) throws IOException {
+        lock.writeLock().lock();
+        try {
+            regions.clear();
+            channel.truncate(size);
+            this.size = channel.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void
+    close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            regions.clear();
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Maps the region, that contains the position, region of the end of the file is remapped once the file grows.
+     * Concurrent accesses might map the same region twice, both mappings are valid and one of them is kept.
+     */
+    private MappedByteBuffer
+    region(long position) throws IOException {
+        int index = (int) (position / REGION);
+        long start = (long) index * REGION;
+        int length = (int) Math.min(REGION, size - start);
+        MappedByteBuffer region = regions.get(index);
+        if (region == null || region.capacity() < length) {
+            region = channel.map(mode, start, length);
+            regions.put(index, region);
+        }
+        return region;
+    }
+}
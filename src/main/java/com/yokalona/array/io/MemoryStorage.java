@@ -0,0 +1,132 @@
+package com.yokalona.array.io;
+
+import com.yokalona.array.configuration.File;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * <p>Storage, that keeps the content on the heap and never touches the disk. Contents are registered by path, so a
+ * file, that is reopened by the same path within the same JVM, sees everything written before, until it is
+ * {@link #delete(Path) deleted}. Forcing does nothing, content is lost on exit.</p>
+ * <p>Content is split into fixed-size pages, so its size is not limited by the size of a single array.</p>
+ */
+public class MemoryStorage implements Storage {
+
+    private static final int PAGE = 1 << 16;
+    private static final Map<Path, Content> CONTENTS = new ConcurrentHashMap<>();
+
+    private final Content content;
+
+    public MemoryStorage(Path path, File.Mode mode) throws IOException {
+        Path key = key(path);
+        Content content = mode == File.Mode.R ? CONTENTS.get(key) : CONTENTS.computeIfAbsent(key, ignore -> new Content());
+        if (content == null) throw new NoSuchFileException(path.toString());
+        this.content = content;
+    }
+
+    public static boolean
+    exists(Path path) {
+        return CONTENTS.containsKey(key(path));
+    }
+
+    public static void
+    delete(Path path) {
+        CONTENTS.remove(key(path));
+    }
+
+    @Override
+    public int
+    read(long position, byte[] data, int offset, int length) {
+        content.lock.readLock().lock();
+        try {
+            if (position >= content.size) return -1;
+            length = (int) Math.min(length, content.size - position);
+            for (int done = 0, count; done < length; done += count) {
+                long at = position + done;
+                int skip = (int) (at % PAGE);
+                count = Math.min(length - done, PAGE - skip);
+                System.arraycopy(content.pages.get((int) (at / PAGE)), skip, data, offset + done, count);
+            }
+            return length;
+        } finally {
+            content.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void
+    write(long position, byte[] data, int offset, int length) {
+        content.lock.writeLock().lock();
+        try {
+            long end = position + length;
+            while ((long) content.pages.size() * PAGE < end) content.pages.add(new byte[PAGE]);
+            for (int done = 0, count; done < length; done += count) {
+                long at = position + done;
+                int skip = (int) (at % PAGE);
+                count = Math.min(length - done, PAGE - skip);
+                System.arraycopy(data, offset + done, content.pages.get((int) (at / PAGE)), skip, count);
+            }
+            content.size = Math.max(content.size, end);
+        } finally {
+            content.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void
+    force(boolean metadata) {
+    }
+
+    @Override
+    public long
+    size() {
+        content.lock.readLock().lock();
+        try {
+            return content.size;
+        } finally {
+            content.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void
+    truncate(long size) {
+        content.lock.writeLock().lock();
+        try {
+            if (size >= content.size) return;
+            int pages = (int) ((size + PAGE - 1) / PAGE);
+            content.pages.subList(pages, content.pages.size()).clear();
+            if (size % PAGE != 0) {
+                byte[] last = content.pages.get(pages - 1);
+                Arrays.fill(last, (int) (size % PAGE), PAGE, (byte) 0);
+            }
+            content.size = size;
+        } finally {
+            content.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void
+    close() {
+    }
+
+    private static Path
+    key(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+
+    private static final class Content {
+        private final List<byte[]> pages = new ArrayList<>();
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private long size;
+    }
+}
@@ -1,19 +1,19 @@
 package com.yokalona.array.io;
 
 import java.io.IOException;
-import java.io.RandomAccessFile;
 
 public class OutputWriter implements AutoCloseable {
-    private final RandomAccessFile raf;
+    private final Storage storage;
     private final byte[] buffer;
     private int position;
+    private long address;
 
-    public OutputWriter(RandomAccessFile raf, int size) {
-        this(raf, new byte[size]);
+    public OutputWriter(Storage storage, int size) {
+        this(storage, new byte[size]);
     }
 
-    public OutputWriter(RandomAccessFile raf, byte[] buffer) {
-        this.raf = raf;
+    public OutputWriter(Storage storage, byte[] buffer) {
+        this.storage = storage;
         this.buffer = buffer;
     }
 
@@ -36,7 +36,8 @@ public class OutputWriter implements AutoCloseable {
 
     public void
     flush() throws IOException {
-        raf.write(buffer, 0, position);
+        if (position > 0) storage.write(address, buffer, 0, position);
+        address += position;
         position = 0;
     }
 
@@ -55,6 +56,6 @@ public class OutputWriter implements AutoCloseable {
     public void
     seek(Long address) throws IOException {
         flush();
-        raf.seek(address);
+        this.address = address;
     }
 }
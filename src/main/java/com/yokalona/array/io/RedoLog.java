@@ -0,0 +1,120 @@
+package com.yokalona.array.io;
+
+import com.yokalona.array.serializers.primitives.IntegerSerializer;
+import com.yokalona.array.serializers.primitives.LongSerializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * <p>Append-only redo log. Each {@link #append(byte[], int)} is a single sequential write, once the log is
+ * {@link #force() synced}, a batch is either entirely durable or is detected as torn during
+ * {@link #replay(int, Replay)}.</p>
+ * <p>Every batch is framed as:</p>
+ * <pre>
+ *     | length: 4 bytes | checksum: 8 bytes | entries: length bytes |
+ * </pre>
+ * <p>where each entry is a 4-byte record index followed by a fixed-size record. Checksum is CRC-32C of the entries,
+ * hardware accelerated on most platforms, since it is computed on every flush.</p>
+ */
+public class RedoLog implements AutoCloseable {
+
+    private static final int FRAME = Integer.BYTES + Long.BYTES;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final byte[] frame = new byte[FRAME];
+
+    private long size;
+
+    public RedoLog(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, CREATE, READ, WRITE);
+        this.size = channel.size();
+    }
+
+    public void
+    append(byte[] entries, int length) throws IOException {
+        IntegerSerializer.INSTANCE.serializeCompact(length, frame, 0);
+        LongSerializer.INSTANCE.serializeCompact(checksum(entries, 0, length), frame, Integer.BYTES);
+        ByteBuffer[] buffers = {ByteBuffer.wrap(frame), ByteBuffer.wrap(entries, 0, length)};
+        channel.position(size);
+        while (buffers[0].hasRemaining() || buffers[1].hasRemaining()) channel.write(buffers);
+        size += FRAME + length;
+    }
+
+    public void
+    force() throws IOException {
+        channel.force(false);
+    }
+
+    /**
+     * Applies every entry of every intact batch. Replay stops at the first torn or corrupted batch, since nothing after
+     * it could have been acknowledged.
+     *
+     * @param entry size of a single entry in bytes
+     * @return number of replayed entries
+     */
+    public int
+    replay(int entry, Replay replay) throws IOException {
+        byte[] log = new byte[(int) channel.size()];
+        ByteBuffer buffer = ByteBuffer.wrap(log);
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) ;
+
+        int replayed = 0, offset = 0;
+        while (offset + FRAME <= log.length) {
+            int length = IntegerSerializer.INSTANCE.deserializeCompact(log, offset);
+            long checksum = LongSerializer.INSTANCE.deserializeCompact(log, offset + Integer.BYTES);
+            int start = offset + FRAME;
+            if (length < 0 || length % entry != 0 || start + length > log.length) break;
+            if (checksum(log, start, length) != checksum) break;
+            for (int position = start; position < start + length; position += entry, replayed++)
+                replay.apply(IntegerSerializer.INSTANCE.deserializeCompact(log, position), log, position + Integer.BYTES);
+            offset = start + length;
+        }
+        return replayed;
+    }
+
+    public long
+    size() {
+        return size;
+    }
+
+    public void
+    truncate() throws IOException {
+        channel.truncate(0);
+        channel.force(true);
+        size = 0;
+    }
+
+    public void
+    delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+
+    @Override
+    public void
+    close() throws IOException {
+        if (channel.isOpen()) channel.close();
+    }
+
+    private static long
+    checksum(byte[] data, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(data, offset, length);
+        return crc.getValue();
+    }
+
+    public interface Replay {
+        void apply(int index, byte[] data, int offset) throws IOException;
+    }
+}
@@ -0,0 +1,106 @@
+package com.yokalona.array.io;
+
+import com.yokalona.array.configuration.File;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+/**
+ * <p>Positional block device, that backs a single file of the engine. Storage has no position of its own, every read
+ * and write addresses the device explicitly, so readers and writers keep track of their own positions.</p>
+ * <p>Backend of a file is chosen by its {@link File#backend() configuration}:</p>
+ * <ul>
+ *     <li>{@link File.Backend#FILE} — {@link java.io.RandomAccessFile}, see {@link FileStorage}</li>
+ *     <li>{@link File.Backend#CHANNEL} — {@link java.nio.channels.FileChannel}, see {@link ChannelStorage}</li>
+ *     <li>{@link File.Backend#MAPPED} — memory-mapped file, see {@link MappedStorage}</li>
+ *     <li>{@link File.Backend#MEMORY} — heap only, never touches the disk, see {@link MemoryStorage}</li>
+ *     <li>{@link File.Backend#DIRECT} — bypasses the page cache, see {@link DirectStorage}</li>
+ * </ul>
+ */
+public interface Storage extends AutoCloseable {
+
+    /**
+     * @return number of bytes read, might be less than requested, or -1 if the position is at or past the end
+     */
+    int read(long position, byte[] data, int offset, int length) throws IOException;
+
+    /**
+     * Writes every byte, storage grows if the write ends past its end.
+     */
+    void write(long position, byte[] data, int offset, int length) throws IOException;
+
+    void force(boolean metadata) throws IOException;
+
+    long size() throws IOException;
+
+    void truncate(long size) throws IOException;
+
+    @Override
+    void close() throws IOException;
+
+    default void
+    write(long position, byte[] data) throws IOException {
+        write(position, data, 0, data.length);
+    }
+
+    default void
+    readFully(long position, byte[] data, int offset, int length) throws IOException {
+        while (length > 0) {
+            int read = read(position, data, offset, length);
+            if (read < 0) throw new EOFException();
+            position += read;
+            offset += read;
+            length -= read;
+        }
+    }
+
+    /**
+     * Sequential stream over the storage, that starts at its beginning. Closing the stream does not close the storage.
+     */
+    default InputStream
+    input() {
+        return new InputStream() {
+            private long position;
+
+            @Override
+            public int
+            read() throws IOException {
+                byte[] single = new byte[1];
+                return read(single, 0, 1) <= 0 ? -1 : single[0] & 0xFF;
+            }
+
+            @Override
+            public int
+            read(byte[] data, int offset, int length) throws IOException {
+                if (length == 0) return 0;
+                int read = Storage.this.read(position, data, offset, length);
+                if (read > 0) position += read;
+                return read;
+            }
+        };
+    }
+
+    static Storage
+    open(File file) throws IOException {
+        return switch (file.backend()) {
+            case FILE -> new FileStorage(file.path(), file.mode());
+            case CHANNEL -> new ChannelStorage(file.path(), file.mode());
+            case MAPPED -> new MappedStorage(file.path(), file.mode());
+            case MEMORY -> new MemoryStorage(file.path(), file.mode());
+            case DIRECT -> new DirectStorage(file.path(), file.mode());
+        };
+    }
+
+    static void
+    delete(File file) throws IOException {
+        if (file.backend() == File.Backend.MEMORY) MemoryStorage.delete(file.path());
+        else Files.deleteIfExists(file.path());
+    }
+
+    static boolean
+    exists(File file) {
+        return file.backend() == File.Backend.MEMORY ? MemoryStorage.exists(file.path()) : Files.exists(file.path());
+    }
+}
@@ -0,0 +1,245 @@
+package com.yokalona.array.io;
+
+import com.yokalona.array.configuration.BaseThreadFactory;
+import com.yokalona.array.configuration.Durability;
+import com.yokalona.array.configuration.File;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>Makes written data durable according to configured {@link Durability}. Each {@link #sync(Sync)} returns a
+ * future, that completes once everything written to the target before the call is synced to the storage device.</p>
+ * <p>In group mode, a single background thread collects requests for a window and serves them with one sync per
+ * target: every request for the same target within the window shares a single force. Group synchronizers are
+ * {@link #open(Durability, Path) shared} by every file on the same device with the same window, so arrays and
+ * segments, that live on one device, share the committer thread as well.</p>
+ */
+public class Synchronizer implements AutoCloseable {
+
+    private static final ThreadFactory threadFactory = new BaseThreadFactory("yokabase", "commit");
+    private static final CompletableFuture<Void> DONE = CompletableFuture.completedFuture(null);
+    private static final Map<Device, Synchronizer> shared = new HashMap<>();
+    private static final ReentrantLock registry = new ReentrantLock();
+
+    private final Device device;
+    private final Durability durability;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition requested = lock.newCondition();
+
+    private Thread committer;
+    private volatile boolean running;
+    private int references = 1;
+    private List<Request> pending = new ArrayList<>();
+
+    public Synchronizer(Durability durability) {
+        this(durability, null);
+    }
+
+    private Synchronizer(Durability durability, Device device) {
+        this.device = device;
+        this.durability = durability;
+        if (durability.level() == Durability.Level.GROUP) {
+            this.running = true;
+            this.committer = threadFactory.newThread(this::commit);
+            this.committer.setDaemon(true);
+            this.committer.start();
+        }
+    }
+
+    /**
+     * Returns the group synchronizer of the device, that holds the file, creating it if needed, or a new synchronizer
+     * for any other durability level. Returned synchronizer must be closed once the file is closed, the committer of
+     * the device is stopped once the last file is closed.
+     */
+    public static Synchronizer
+    open(Durability durability, Path file) {
+        if (durability.level() != Durability.Level.GROUP) return new Synchronizer(durability);
+        Device device = new Device(store(file), durability.window());
+        registry.lock();
+        try {
+            Synchronizer synchronizer = shared.get(device);
+            if (synchronizer == null) shared.put(device, synchronizer = new Synchronizer(durability, device));
+            else synchronizer.references++;
+            return synchronizer;
+        } finally {
+            registry.unlock();
+        }
+    }
+
+    public CompletableFuture<Void>
+    sync(Sync target) {
+        return switch (durability.level()) {
+            case NONE -> DONE;
+            case FLUSH -> {
+                try {
+                    target.force();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                yield DONE;
+            }
+            case GROUP -> {
+                Request request = new Request(target, new CompletableFuture<>());
+                boolean queued;
+                lock.lock();
+                try {
+                    if (queued = running) {
+                        pending.add(request);
+                        requested.signal();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                if (!queued) force(List.of(request));
+                yield request.future();
+            }
+        };
+    }
+
+    private void
+    commit() {
+        while (running) {
+            lock.lock();
+            try {
+                while (running && pending.isEmpty()) requested.awaitUninterruptibly();
+            } finally {
+                lock.unlock();
+            }
+            LockSupport.parkNanos(durability.window().toNanos());
+            force(drain());
+        }
+    }
+
+    private List<Request>
+    drain() {
+        lock.lock();
+        try {
+            List<Request> batch = pending;
+            pending = new ArrayList<>();
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forces every target of the batch once, in the order of their first request.
+     */
+    private static void
+    force(List<Request> batch) {
+        Map<Sync, List<CompletableFuture<Void>>> targets = new IdentityHashMap<>();
+        List<Sync> order = new ArrayList<>();
+        for (Request request : batch) {
+            List<CompletableFuture<Void>> futures = targets.get(request.target());
+            if (futures == null) {
+                targets.put(request.target(), futures = new ArrayList<>());
+                order.add(request.target());
+            }
+            futures.add(request.future());
+        }
+        for (Sync target : order) {
+            try {
+                target.force();
+                for (CompletableFuture<Void> future : targets.get(target)) future.complete(null);
+            } catch (IOException | RuntimeException e) {
+                for (CompletableFuture<Void> future : targets.get(target)) future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Releases the synchronizer, the committer is stopped once it is released by every file, that shares it. Requests,
+     * that are pending at that moment, are served before this method returns, requests, that follow, are served
+     * synchronously, by the calling thread.
+     */
+    @Override
+    public void
+    close() {
+        if (committer == null) return;
+        if (device != null) {
+            registry.lock();
+            try {
+                if (--references > 0) return;
+                shared.remove(device);
+            } finally {
+                registry.unlock();
+            }
+        }
+        lock.lock();
+        try {
+            running = false;
+            requested.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        force(drain());
+    }
+
+    private static Object
+    store(Path file) {
+        try {
+            return Files.getFileStore(file.toAbsolutePath().getParent());
+        } catch (IOException e) {
+            return file.toAbsolutePath().getRoot();
+        }
+    }
+
+    private record Device(Object store, Duration window) {
+    }
+
+    private record Request(Sync target, CompletableFuture<Void> future) {
+    }
+
+    public interface Sync extends AutoCloseable {
+        void force() throws IOException;
+
+        @Override
+        default void close() throws IOException {
+        }
+    }
+
+    /**
+     * Syncs a file through its own channel, so that syncing from the committer thread never interferes with the
+     * descriptor used for reads and writes.
+     */
+    public static final class FileSync implements Sync {
+        private final File file;
+        private Storage storage;
+
+        public FileSync(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public void
+        force() throws IOException {
+            if (storage == null) storage = Storage.open(file);
+            storage.force(false);
+        }
+
+        @Override
+        public void
+        close() throws IOException {
+            if (storage != null) storage.close();
+        }
+    }
+}
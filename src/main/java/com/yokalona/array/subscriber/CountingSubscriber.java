@@ -1,10 +1,18 @@
 package com.yokalona.array.subscriber;
 
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
 
 public class CountingSubscriber implements Subscriber {
     private final long[] counters = new long[Counter.values().length * 2];
 
+    @Override
+    public Set<Event>
+    interests() {
+        return EnumSet.complementOf(EnumSet.of(Event.CHUNK_RESIZED, Event.TIMED));
+    }
+
     @Override
     public void
     onSerialized(int index) {
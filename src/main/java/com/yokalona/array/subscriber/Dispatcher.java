@@ -0,0 +1,208 @@
+package com.yokalona.array.subscriber;
+
+import com.yokalona.array.configuration.Dispatch;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>Delivers events to subscribers. Each subscriber declares its {@link Subscriber#interests() interests}, an event,
+ * that none of the subscribers is interested in, costs a single branch and is never published.</p>
+ * <p>In asynchronous mode events are published into a bounded lock-free ring of primitive slots, so publishing does
+ * not allocate. The ring is drained on the executor by a single consumer at a time, so subscribers are never called
+ * concurrently. Publisher waits for a free slot, if the ring is full.</p>
+ */
+public final class Dispatcher {
+
+    private static final ChunkType[] CHUNKS = ChunkType.values();
+    private static final Operation[] OPERATIONS = Operation.values();
+
+    private final int interests;
+    private final int[] masks;
+    private final Subscriber[] subscribers;
+    private final Executor executor;
+    private final Ring ring;
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    public Dispatcher(List<Subscriber> subscribers, Dispatch dispatch, Executor executor) {
+        this.executor = executor;
+        this.subscribers = subscribers.toArray(new Subscriber[0]);
+        this.masks = new int[this.subscribers.length];
+        int interests = 0;
+        for (int index = 0; index < masks.length; index++) interests |= masks[index] = Event.mask(this.subscribers[index].interests());
+        this.interests = interests;
+        this.ring = dispatch.asynchronous() && interests != 0 ? new Ring(dispatch.capacity()) : null;
+    }
+
+    public boolean
+    interested(Event event) {
+        return (interests & event.mask()) != 0;
+    }
+
+    public void
+    dispatch(Event event) {
+        dispatch(event, 0, 0, 0);
+    }
+
+    public void
+    dispatch(Event event, int first) {
+        dispatch(event, first, 0, 0);
+    }
+
+    public void
+    dispatch(Event event, int first, int second) {
+        dispatch(event, first, second, 0);
+    }
+
+    public void
+    dispatch(Event event, int first, int second, int third) {
+        dispatch(event, first, second, third, 0);
+    }
+
+    public void
+    dispatch(Event event, int first, long measure) {
+        dispatch(event, first, 0, 0, measure);
+    }
+
+    private void
+    dispatch(Event event, int first, int second, int third, long measure) {
+        if ((interests & event.mask()) == 0) return;
+        if (ring == null) deliver(event, first, second, third, measure);
+        else {
+            while (!ring.offer(event.ordinal(), first, second, third, measure)) {
+                schedule();
+                Thread.onSpinWait();
+            }
+            schedule();
+        }
+    }
+
+    /**
+     * Delivers every event published so far on the calling thread. Does nothing in synchronous mode.
+     */
+    public void
+    drain() {
+        if (ring == null) return;
+        while (!draining.compareAndSet(false, true)) Thread.onSpinWait();
+        try {
+            poll();
+        } finally {
+            draining.set(false);
+        }
+    }
+
+    private void
+    schedule() {
+        if (!draining.get() && draining.compareAndSet(false, true)) executor.execute(this::consume);
+    }
+
+    private void
+    consume() {
+        do {
+            try {
+                poll();
+            } finally {
+                draining.set(false);
+            }
+        } while (!ring.isEmpty() && draining.compareAndSet(false, true));
+    }
+
+    private void
+    poll() {
+        while (ring.poll()) deliver(Event.of(ring.event), ring.first, ring.second, ring.third, ring.measure);
+    }
+
+    private void
+    deliver(Event event, int first, int second, int third, long measure) {
+        for (int index = 0; index < subscribers.length; index++) {
+            if ((masks[index] & event.mask()) == 0) continue;
+            Subscriber subscriber = subscribers[index];
+            switch (event) {
+                case SERIALIZED -> subscriber.onSerialized(first);
+                case CHUNK_SERIALIZED -> subscriber.onChunkSerialized();
+                case DESERIALIZED -> subscriber.onDeserialized(first);
+                case CHUNK_DESERIALIZED -> subscriber.onChunkDeserialized();
+                case CACHE_MISS -> subscriber.onCacheMiss(first);
+                case WRITE_COLLISION -> subscriber.onWriteCollision(first, second);
+                case FILE_CREATED -> subscriber.onFileCreated();
+                case CHUNK_RESIZED -> subscriber.onChunkResized(CHUNKS[first], second, third);
+                case TIMED -> subscriber.onTiming(OPERATIONS[first], measure);
+            }
+        }
+    }
+
+    /**
+     * Bounded multi-producer single-consumer ring, each slot carries a sequence number, that tells whether the slot is
+     * free for the producer of the given turn or is published for the consumer.
+     */
+    private static final class Ring {
+
+        private final int mask;
+        private final int[] events;
+        private final int[] firsts;
+        private final int[] seconds;
+        private final int[] thirds;
+        private final long[] measures;
+        private final AtomicLongArray sequences;
+        private final AtomicLong tail = new AtomicLong();
+
+        private long head;
+        private int event;
+        private int first;
+        private int second;
+        private int third;
+        private long measure;
+
+        Ring(int capacity) {
+            this.mask = capacity - 1;
+            this.events = new int[capacity];
+            this.firsts = new int[capacity];
+            this.seconds = new int[capacity];
+            this.thirds = new int[capacity];
+            this.measures = new long[capacity];
+            this.sequences = new AtomicLongArray(capacity);
+            for (int slot = 0; slot < capacity; slot++) sequences.set(slot, slot);
+        }
+
+        boolean
+        offer(int event, int first, int second, int third, long measure) {
+            while (true) {
+                long turn = tail.get();
+                int slot = (int) (turn & mask);
+                long sequence = sequences.getAcquire(slot);
+                if (sequence < turn) return false;
+                if (sequence == turn && tail.compareAndSet(turn, turn + 1)) {
+                    events[slot] = event;
+                    firsts[slot] = first;
+                    seconds[slot] = second;
+                    thirds[slot] = third;
+                    measures[slot] = measure;
+                    sequences.setRelease(slot, turn + 1);
+                    return true;
+                }
+            }
+        }
+
+        boolean
+        poll() {
+            int slot = (int) (head & mask);
+            if (sequences.getAcquire(slot) != head + 1) return false;
+            event = events[slot];
+            first = firsts[slot];
+            second = seconds[slot];
+            third = thirds[slot];
+            measure = measures[slot];
+            sequences.setRelease(slot, head + mask + 1);
+            head++;
+            return true;
+        }
+
+        boolean
+        isEmpty() {
+            return sequences.getAcquire((int) (head & mask)) != head + 1;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.yokalona.array.subscriber;
+
+import java.util.Set;
+
+/**
+ * Events, that a {@link Subscriber} might be interested in, each event corresponds to a single callback.
+ */
+public enum Event {
+    SERIALIZED, CHUNK_SERIALIZED, DESERIALIZED, CHUNK_DESERIALIZED, CACHE_MISS, WRITE_COLLISION, FILE_CREATED,
+    CHUNK_RESIZED, TIMED;
+
+    private static final Event[] EVENTS = values();
+
+    public int
+    mask() {
+        return 1 << ordinal();
+    }
+
+    static int
+    mask(Set<Event> events) {
+        int mask = 0;
+        for (Event event : events) mask |= event.mask();
+        return mask;
+    }
+
+    static Event
+    of(int ordinal) {
+        return EVENTS[ordinal];
+    }
+}
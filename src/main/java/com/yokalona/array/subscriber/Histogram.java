@@ -0,0 +1,74 @@
+package com.yokalona.array.subscriber;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>Log-linear histogram of non-negative values, similar to HdrHistogram. Values below {@code 2^PRECISION} are
+ * counted exactly, above that each power of two is split into {@code 2^(PRECISION - 1)} equal buckets, so any recorded
+ * value is reported with relative error below {@code 2^-(PRECISION - 1)}, about 6%.</p>
+ * <p>Recording is a single atomic increment and never allocates, so histogram can be updated from any thread.
+ * Percentiles are computed from a racy, but consistent enough for monitoring, view of the buckets.</p>
+ */
+public final class Histogram {
+
+    private static final int PRECISION = 5;
+    private static final int SUB = 1 << PRECISION;
+    private static final int HALF = SUB >>> 1;
+    private static final int BUCKETS = SUB + (Long.SIZE - 1 - PRECISION) * HALF;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    public void
+    record(long value) {
+        buckets.incrementAndGet(bucket(Math.max(0, value)));
+    }
+
+    public long
+    count() {
+        long count = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) count += buckets.get(bucket);
+        return count;
+    }
+
+    /**
+     * @param percentile within {@code [0, 100]}
+     * @return the highest value, that is equivalent to the value at the given percentile, or 0 if nothing was recorded
+     */
+    public long
+    percentile(double percentile) {
+        assert percentile >= 0 && percentile <= 100;
+
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) total += counts[bucket] = buckets.get(bucket);
+        if (total == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= target) return highest(bucket);
+        }
+        return highest(BUCKETS - 1);
+    }
+
+    public void
+    reset() {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) buckets.set(bucket, 0);
+    }
+
+    static int
+    bucket(long value) {
+        if (value < SUB) return (int) value;
+        int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - (PRECISION - 1);
+        int top = (int) (value >>> shift);
+        return SUB + (shift - 1) * HALF + (top - HALF);
+    }
+
+    static long
+    highest(int bucket) {
+        if (bucket < SUB) return bucket;
+        int shift = (bucket - SUB) / HALF + 1;
+        long top = (bucket - SUB) % HALF + HALF;
+        return ((top + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,55 @@
+package com.yokalona.array.subscriber;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Records latency of each {@link Operation} into its own {@link Histogram}. Recording does not allocate, so the
+ * subscriber is cheap enough to stay enabled in production.
+ */
+public class LatencySubscriber implements Subscriber {
+
+    private final Histogram[] histograms = new Histogram[Operation.values().length];
+
+    public LatencySubscriber() {
+        for (int operation = 0; operation < histograms.length; operation++) histograms[operation] = new Histogram();
+    }
+
+    @Override
+    public Set<Event>
+    interests() {
+        return EnumSet.of(Event.TIMED);
+    }
+
+    @Override
+    public void
+    onTiming(Operation operation, long nanos) {
+        histograms[operation.ordinal()].record(nanos);
+    }
+
+    public Histogram
+    histogram(Operation operation) {
+        return histograms[operation.ordinal()];
+    }
+
+    public long
+    percentile(Operation operation, double percentile) {
+        return histograms[operation.ordinal()].percentile(percentile);
+    }
+
+    public void
+    reset() {
+        for (Histogram histogram : histograms) histogram.reset();
+    }
+
+    public String
+    toString() {
+        StringBuilder report = new StringBuilder("Latency, ns:\n");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histogram(operation);
+            report.append(String.format("\t%s: count=%d, p50=%d, p99=%d, p999=%d%n", operation.name(), histogram.count(),
+                    histogram.percentile(50), histogram.percentile(99), histogram.percentile(99.9)));
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,13 @@
+package com.yokalona.array.subscriber;
+
+/**
+ * I/O operations of an array, that are timed:
+ * <ul>
+ *     <li>{@link #CHUNK_READ} - load of a read chunk, starting at a missed record</li>
+ *     <li>{@link #CHUNK_WRITE} - flush of a write chunk</li>
+ *     <li>{@link #WRITE} - in-place write of a single record, when writes are not chunked</li>
+ * </ul>
+ */
+public enum Operation {
+    CHUNK_READ, CHUNK_WRITE, WRITE
+}
@@ -2,8 +2,19 @@ package com.yokalona.array.subscriber;
 
 import com.yokalona.array.PersistentArray;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public interface Subscriber {
 
+    /**
+     * Events, this subscriber is interested in, only those are delivered. Queried once, when an array is created.
+     */
+    default Set<Event>
+    interests() {
+        return EnumSet.allOf(Event.class);
+    }
+
     default void
     onSerialized(int index) {
     }
@@ -32,6 +43,13 @@ public interface Subscriber {
     onFileCreated() {
     }
 
+    /**
+     * Reports wall-clock duration of an I/O operation, including serialization and syncing, if any.
+     */
+    default void
+    onTiming(Operation ignore1, long ignore2) {
+    }
+
     default void
     onChunkResized(ChunkType ignore1, int ignore2, int ignore3) {
     }
@@ -0,0 +1,266 @@
+package com.yokalona.file;
+
+import com.yokalona.array.io.CachedFile;
+import com.yokalona.array.io.Storage;
+import com.yokalona.file.exceptions.NoFreeFrameException;
+import com.yokalona.jfr.PageReadEvent;
+import com.yokalona.jfr.PageWriteEvent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>Fixed number of page frames, that cache pages of a file. A page is {@link #pin(long, boolean) pinned} while it is
+ * used and cannot be evicted until every pin is {@link #unpin(Frame, boolean) released}. Frames are reclaimed with the
+ * CLOCK algorithm: every access sets the reference bit of a frame, the clock hand clears the bit of a referenced
+ * frame and evicts the first unpinned frame, which bit is already clear.</p>
+ * <p>Writes are deferred: a frame, that was released dirty, is written only once it is evicted or the pool is
+ * {@link #flush() flushed}. Flush writes dirty frames in the order of their addresses, adjacent frames are coalesced
+ * into a single write.</p>
+ * <p>Content of a dirty frame must be ready to be written at the moment it is released, since it can be written at
+ * any eviction afterwards.</p>
+ */
+public class BufferPool {
+
+    private static final int BATCH = 16;
+
+    private final int page;
+    private final Frame[] frames;
+    private final CachedFile file;
+    private final Map<Long, Frame> table = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private int hand;
+    private long reads;
+    private long writes;
+    private long bytesRead;
+    private long bytesWritten;
+
+    public BufferPool(CachedFile file, int frames, int page) {
+        assert frames > 0 && page > 0;
+
+        this.file = file;
+        this.page = page;
+        this.frames = new Frame[frames];
+        for (int index = 0; index < frames; index++) this.frames[index] = new Frame(new byte[page]);
+    }
+
+    /**
+     * Pins the page, reading it if it is not resident.
+     *
+     * @param fresh whether the page is new, its frame is zeroed instead of being read
+     */
+    public Frame
+    pin(long address, boolean fresh) {
+        lock.lock();
+        try {
+            Frame frame = table.get(address);
+            if (frame == null) {
+                frame = victim();
+                if (frame.address >= 0) table.remove(frame.address);
+                frame.address = address;
+                frame.attachment = null;
+                if (fresh) Arrays.fill(frame.data, (byte) 0);
+                else read(frame);
+                table.put(address, frame);
+            }
+            frame.pins++;
+            frame.referenced = true;
+            return frame;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void
+    unpin(Frame frame, boolean dirty) {
+        lock.lock();
+        try {
+            assert frame.pins > 0;
+            frame.pins--;
+            frame.dirty |= dirty;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks a pinned frame as dirty without releasing it.
+     */
+    public void
+    dirty(Frame frame) {
+        lock.lock();
+        try {
+            assert frame.pins > 0;
+            frame.dirty = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes every dirty frame, including the pinned ones.
+     */
+    public void
+    flush() {
+        lock.lock();
+        try {
+            List<Frame> dirty = new ArrayList<>();
+            for (Frame frame : frames) if (frame.dirty) dirty.add(frame);
+            dirty.sort(Comparator.comparingLong(frame -> frame.address));
+            byte[] batch = new byte[0];
+            for (int from = 0, to; from < dirty.size(); from = to) {
+                to = from + 1;
+                while (to < dirty.size() && to - from < BATCH
+                        && dirty.get(to).address == dirty.get(to - 1).address + page) to++;
+                if (to - from == 1) write(dirty.get(from).address, dirty.get(from).data, page);
+                else {
+                    if (batch.length < (to - from) * page) batch = new byte[BATCH * page];
+                    for (int index = from; index < to; index++)
+                        System.arraycopy(dirty.get(index).data, 0, batch, (index - from) * page, page);
+                    write(dirty.get(from).address, batch, (to - from) * page);
+                }
+                for (int index = from; index < to; index++) dirty.get(index).dirty = false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int
+    frames() {
+        return frames.length;
+    }
+
+    public long
+    reads() {
+        return reads;
+    }
+
+    public long
+    writes() {
+        return writes;
+    }
+
+    public long
+    bytesRead() {
+        return bytesRead;
+    }
+
+    public long
+    bytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Advances the clock hand till an unpinned frame, which reference bit is clear, dirty victim is written first.
+     */
+    private Frame
+    victim() {
+        for (int step = 0; step < 2 * frames.length; step++) {
+            Frame frame = frames[hand];
+            hand = (hand + 1) % frames.length;
+            if (frame.pins > 0) continue;
+            if (frame.referenced) {
+                frame.referenced = false;
+                continue;
+            }
+            if (frame.dirty) {
+                write(frame.address, frame.data, page);
+                frame.dirty = false;
+            }
+            return frame;
+        }
+        throw new NoFreeFrameException(frames.length);
+    }
+
+    private void
+    read(Frame frame) {
+        PageReadEvent event = new PageReadEvent();
+        event.begin();
+        try (file) {
+            Storage storage = file.get();
+            int read = 0;
+            for (int next; read < page; read += next) {
+                next = storage.read(frame.address + read, frame.data, read, page - read);
+                if (next < 0) break;
+            }
+            Arrays.fill(frame.data, Math.max(read, 0), page, (byte) 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        reads++;
+        bytesRead += page;
+        if (event.shouldCommit()) {
+            event.address = frame.address;
+            event.bytes = page;
+            event.commit();
+        }
+    }
+
+    private void
+    write(long address, byte[] data, int length) {
+        PageWriteEvent event = new PageWriteEvent();
+        event.begin();
+        try (file) {
+            file.get().write(address, data, 0, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        writes++;
+        bytesWritten += length;
+        if (event.shouldCommit()) {
+            event.address = address;
+            event.bytes = length;
+            event.commit();
+        }
+    }
+
+    /**
+     * Page frame. Its content and attachment can be used only while the frame is pinned.
+     */
+    public static final class Frame {
+
+        private final byte[] data;
+        private long address = -1;
+        private int pins;
+        private boolean dirty;
+        private boolean referenced;
+        private Object attachment;
+
+        private Frame(byte[] data) {
+            this.data = data;
+        }
+
+        public byte[]
+        data() {
+            return data;
+        }
+
+        public long
+        address() {
+            return address;
+        }
+
+        /**
+         * Object derived from the content of the frame, e.g. a parsed page. Attachment is dropped once the frame is
+         * reused for another page.
+         */
+        public Object
+        attachment() {
+            return attachment;
+        }
+
+        public void
+        attach(Object attachment) {
+            this.attachment = attachment;
+        }
+    }
+}
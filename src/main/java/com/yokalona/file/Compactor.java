@@ -0,0 +1,95 @@
+package com.yokalona.file;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>Compacts sparse pages of a {@link VSFile} in the background. A page is sparse once any of its records was deleted
+ * or relocated. Compaction defragments the page, so the space of deleted records is available to inserts again, while
+ * tombstones keep their slots.</p>
+ * <p>Compaction runs on the configured executor, a single pass at a time. Each page is compacted under the lock of the
+ * file, so foreground operations interleave with compaction page by page. Pass is throttled: after each page it
+ * sleeps long enough to keep the I/O of compaction under the configured rate.</p>
+ * <p>Compaction is best effort: a pass, that the executor rejects, is dropped and the sparse pages wait for the next
+ * signal. Closing waits for the running pass for at most {@link #CLOSE_TIMEOUT} nanoseconds, a pass, that has not
+ * started by then, is cancelled.</p>
+ */
+final class Compactor implements AutoCloseable {
+
+    static final long CLOSE_TIMEOUT = TimeUnit.SECONDS.toNanos(1);
+
+    private final VSFile<?> file;
+    private final VSFile.Compaction compaction;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile boolean closed;
+    private volatile Thread worker;
+    private volatile FutureTask<Void> task;
+
+    Compactor(VSFile<?> file, VSFile.Compaction compaction) {
+        this.file = file;
+        this.compaction = compaction;
+    }
+
+    /**
+     * Starts a pass, unless one is already running.
+     */
+    void
+    signal() {
+        if (closed || running.get() || !running.compareAndSet(false, true)) return;
+        FutureTask<Void> task = new FutureTask<>(this::pass, null);
+        this.task = task;
+        try {
+            compaction.executor().execute(task);
+        } catch (RejectedExecutionException e) {
+            task.cancel(false);
+            running.set(false);
+        }
+    }
+
+    private void
+    pass() {
+        worker = Thread.currentThread();
+        try {
+            for (int page; !closed && (page = file.sparse()) >= 0; ) {
+                long bytes = file.compact(page);
+                if (bytes > 0) LockSupport.parkNanos(bytes * 1_000_000_000L / compaction.rate());
+            }
+        } finally {
+            worker = null;
+            running.set(false);
+        }
+        if (!closed && file.sparse() >= 0) signal();
+    }
+
+    /**
+     * Stops compaction, waits for the page being compacted, if any.
+     */
+    @Override
+    public void
+    close() {
+        closed = true;
+        Thread worker = this.worker;
+        if (worker != null) LockSupport.unpark(worker);
+        FutureTask<Void> task = this.task;
+        if (task == null) return;
+        try {
+            task.get(CLOSE_TIMEOUT, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            task.cancel(false);
+            running.set(false);
+        } catch (CancellationException ignore) {
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            if (e.getCause() instanceof Error error) throw error;
+        }
+    }
+}
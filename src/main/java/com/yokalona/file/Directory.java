@@ -0,0 +1,374 @@
+package com.yokalona.file;
+
+import com.yokalona.array.io.CachedFile;
+import com.yokalona.array.serializers.primitives.CompactIntegerSerializer;
+import com.yokalona.file.VSFile.PagePointer;
+import com.yokalona.file.VSFile.PagePointerSerializer;
+import com.yokalona.file.headers.CRC;
+import com.yokalona.file.headers.Fixed;
+import com.yokalona.file.page.FSPage;
+import com.yokalona.jfr.PageReadEvent;
+import com.yokalona.jfr.PageWriteEvent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Multi-level directory of data pages, along with the allocator of file space. Directory is a tree of
+ * {@link FSPage nodes} of {@link PagePointer pointers}: leaves point to data pages and hold the number of records
+ * within each of them, inner nodes point to their children and hold the number of data pages beneath each child. The
+ * root is always stored at address 0, each node is tagged with its level, the level of the root is the depth of the
+ * tree.</p>
+ * <p>Data pages are only appended, so every node but the rightmost one of each level is full and gets no more
+ * pointers. Those rightmost nodes form the spine of the tree, which is kept in memory and is written on
+ * {@link #flush()}. Full leaves still change, once the number of records within one of their pages is
+ * {@link #update(int, int) updated}: such a leaf is read, changed and written back in place. Full inner nodes count
+ * data pages only, so they are never changed again. Once a node of the spine is full it is written, and a new node takes its place. Once the root is
+ * full, it is moved to a new address and a new root, that points to it, is created one level above.</p>
+ * <p>Pointers to every data page are cached in memory, the whole tree is read when the directory is opened. Numbers
+ * of records are kept in a Fenwick tree as well, so the page of an ordinal is found, and the number of records of a
+ * page is changed, in logarithmic time. Space is allocated at the end of the file: every node takes a slot, data pages
+ * take a page each, extents take a whole number of pages. The end of the file is advanced atomically, so space can be
+ * allocated concurrently with any other operation, the rest of the directory must be changed under a single lock.</p>
+ */
+final class Directory {
+
+    private static final int TAG = 6;
+    private static final int POINTER = PagePointerSerializer.INSTANCE.sizeOf();
+
+    private final int page;
+    private final int slot;
+    private final int length;
+    private final int fanout;
+    private final CachedFile file;
+    private final List<Node> spine = new ArrayList<>();
+
+    private int pages;
+    private int leaves;
+    private final AtomicLong end = new AtomicLong();
+    private int[] sizes = new int[16];
+    private long[] addresses = new long[16];
+    private long[] leaf = new long[4];
+    private long[] tree = new long[17];
+    private long reads;
+    private long writes;
+    private long bytesRead;
+    private long bytesWritten;
+
+    private Directory(CachedFile file, int length, int slot, int page) {
+        assert length > 0 && slot >= length && page > 0;
+
+        this.file = file;
+        this.page = page;
+        this.slot = slot;
+        this.length = length;
+        this.end.set(slot);
+        this.fanout = node(0).free() / POINTER;
+        assert fanout > 1 : "Directory node of " + length + " bytes must fit at least two pointers";
+    }
+
+    /**
+     * @param length of a single node in bytes
+     * @param slot   space taken by a single node in the file, the root takes the first slot
+     * @param page   space taken by a single data page in the file
+     */
+    static Directory
+    create(CachedFile file, int length, int slot, int page) {
+        Directory directory = new Directory(file, length, slot, page);
+        directory.spine.add(new Node(0L, 0, directory.node(0)));
+        directory.leaf(0L);
+        return directory;
+    }
+
+    static Directory
+    read(CachedFile file, int length, int slot, int page) {
+        Directory directory = new Directory(file, length, slot, page);
+        Node root = directory.read(0L);
+        for (int level = 0; level <= root.level; level++) directory.spine.add(null);
+        directory.load(root);
+        try (file) {
+            long size = file.get().size();
+            directory.end.accumulateAndGet((size + page - 1) / page * page, Math::max);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return directory;
+    }
+
+    /**
+     * Allocates space for a new data page, the page must be {@link #add(long, int) added} afterwards.
+     */
+    long
+    allocate() {
+        return allocate(page);
+    }
+
+    /**
+     * Allocates an extent of the given number of bytes, rounded up to a whole number of pages.
+     */
+    long
+    allocate(long bytes) {
+        return end.getAndAdd((bytes + page - 1) / page * page);
+    }
+
+    void
+    add(long address, int size) {
+        append(0, new PagePointer(address, size));
+        for (int level = 1; level < spine.size(); level++) {
+            FSPage<PagePointer> node = spine.get(level).page;
+            PagePointer last = node.last();
+            node.set(node.size() - 1, new PagePointer(last.address(), last.size() + 1));
+            spine.get(level).dirty = true;
+        }
+        cache(address, size);
+    }
+
+    /**
+     * Changes the number of records within the data page. A page from the spine is changed in memory, any other page
+     * is changed in place.
+     */
+    void
+    update(int page, int size) {
+        assert page >= 0 && page < pages;
+
+        count(page, size - sizes[page]);
+        sizes[page] = size;
+        int leaf = page / fanout;
+        Node node = leaf == leaves - 1 ? spine.getFirst() : read(this.leaf[leaf]);
+        node.page.set(page % fanout, new PagePointer(addresses[page], size));
+        node.dirty = true;
+        if (leaf != leaves - 1) write(node);
+    }
+
+    int
+    pages() {
+        return pages;
+    }
+
+    long
+    address(int page) {
+        return addresses[page];
+    }
+
+    int
+    size(int page) {
+        return sizes[page];
+    }
+
+    /**
+     * @return addresses of every data page, in the order of pages
+     */
+    long[]
+    addresses() {
+        return Arrays.copyOf(addresses, pages);
+    }
+
+    /**
+     * @return number of records within all the pages
+     */
+    long
+    records() {
+        return first(pages);
+    }
+
+    /**
+     * @return ordinal of the first record of the page
+     */
+    long
+    first(int page) {
+        long first = 0;
+        for (int index = page; index > 0; index -= index & -index) first += tree[index];
+        return first;
+    }
+
+    /**
+     * @return page, that holds the record with the given ordinal
+     */
+    int
+    page(long ordinal) {
+        assert ordinal >= 0 && ordinal < records();
+
+        int page = 0;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            if (page + step < tree.length && tree[page + step] <= ordinal) ordinal -= tree[page += step];
+        }
+        return page;
+    }
+
+    int
+    depth() {
+        return spine.size() - 1;
+    }
+
+    /**
+     * Writes every changed node of the spine.
+     */
+    void
+    flush() {
+        for (Node node : spine) if (node.dirty) write(node);
+    }
+
+    long
+    reads() {
+        return reads;
+    }
+
+    long
+    writes() {
+        return writes;
+    }
+
+    long
+    bytesRead() {
+        return bytesRead;
+    }
+
+    long
+    bytesWritten() {
+        return bytesWritten;
+    }
+
+    private void
+    append(int level, PagePointer pointer) {
+        Node node = spine.get(level);
+        if (node.page.size() == fanout) {
+            if (level == depth()) grow();
+            Node fresh = new Node(node(), level, node(level));
+            append(level + 1, new PagePointer(fresh.address, 0));
+            write(node);
+            spine.set(level, fresh);
+            if (level == 0) leaf(fresh.address);
+            node = fresh;
+        }
+        node.page.append(pointer);
+        node.dirty = true;
+    }
+
+    private void
+    grow() {
+        Node root = spine.getLast();
+        root.address = node();
+        root.dirty = true;
+        if (root.level == 0) leaf[0] = root.address;
+        Node top = new Node(0L, root.level + 1, node(root.level + 1));
+        top.page.append(new PagePointer(root.address, pages));
+        top.dirty = true;
+        spine.add(top);
+    }
+
+    private void
+    load(Node node) {
+        spine.set(node.level, node);
+        if (node.level == 0) leaf(node.address);
+        for (PagePointer pointer : node.page) {
+            if (node.level == 0) {
+                cache(pointer.address(), pointer.size());
+                end.accumulateAndGet(pointer.address() + page, Math::max);
+            } else {
+                load(read(pointer.address()));
+                end.accumulateAndGet(pointer.address() + slot, Math::max);
+            }
+        }
+    }
+
+    private void
+    cache(long address, int size) {
+        if (pages == addresses.length) {
+            addresses = Arrays.copyOf(addresses, pages * 2);
+            sizes = Arrays.copyOf(sizes, pages * 2);
+            tree = new long[pages * 2 + 1];
+            for (int page = 0; page < pages; page++) count(page, sizes[page]);
+        }
+        addresses[pages] = address;
+        sizes[pages] = size;
+        count(pages++, size);
+    }
+
+    private void
+    count(int page, long delta) {
+        for (int index = page + 1; index < tree.length; index += index & -index) tree[index] += delta;
+    }
+
+    private void
+    leaf(long address) {
+        if (leaves == leaf.length) leaf = Arrays.copyOf(leaf, leaves * 2);
+        leaf[leaves++] = address;
+    }
+
+    private long
+    node() {
+        return end.getAndAdd(slot);
+    }
+
+    private FSPage<PagePointer>
+    node(int level) {
+        return FSPage.Configurer.create(new byte[length], 0)
+                .addHeader(new CRC())
+                .addHeader(new Fixed<>(TAG, new CompactIntegerSerializer(1)))
+                .addHeader(new Fixed<>(level, new CompactIntegerSerializer(1)))
+                .fspage(PagePointerSerializer.INSTANCE);
+    }
+
+    private Node
+    read(long address) {
+        PageReadEvent event = new PageReadEvent();
+        event.begin();
+        byte[] data = new byte[length];
+        try (file) {
+            file.get().readFully(address, data, 0, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Fixed<Integer> level = new Fixed<>(new CompactIntegerSerializer(1));
+        FSPage<PagePointer> page = FSPage.Configurer.create(data, 0)
+                .addHeader(new CRC())
+                .addHeader(new Fixed<>(TAG, new CompactIntegerSerializer(1)))
+                .addHeader(level)
+                .read(PagePointerSerializer.INSTANCE);
+        reads++;
+        bytesRead += length;
+        if (event.shouldCommit()) {
+            event.address = address;
+            event.bytes = length;
+            event.commit();
+        }
+        return new Node(address, level.value(), page);
+    }
+
+    private void
+    write(Node node) {
+        PageWriteEvent event = new PageWriteEvent();
+        event.begin();
+        node.page.flush();
+        try (file) {
+            file.get().write(node.address, node.page.configuration().page(), 0, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        node.dirty = false;
+        writes++;
+        bytesWritten += length;
+        if (event.shouldCommit()) {
+            event.address = node.address;
+            event.bytes = length;
+            event.commit();
+        }
+    }
+
+    private static final class Node {
+        private final int level;
+        private final FSPage<PagePointer> page;
+        private long address;
+        private boolean dirty;
+
+        private Node(long address, int level, FSPage<PagePointer> page) {
+            this.page = page;
+            this.level = level;
+            this.address = address;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.yokalona.file;
+
+/**
+ * <p>Stored form of a record of {@link VSFile}. Record keeps its place, once it is deleted or grows out of it:</p>
+ * <ul>
+ *     <li>{@link State#LIVE} holds the value of the record;</li>
+ *     <li>{@link State#FORWARD} holds the identifier of the place, the record was relocated to;</li>
+ *     <li>{@link State#RELOCATED} holds the value of a relocated record, it is reachable only through its forward;</li>
+ *     <li>{@link State#TOMBSTONE} marks a deleted record.</li>
+ * </ul>
+ * <p>Value of a live or relocated record is either inline, or external: stored in an extent of the file, outside of
+ * pages, in which case the envelope holds the address and the length of the extent.</p>
+ *
+ * @param target identifier of the record, the forward points to, or address of the extent of an external value
+ * @param length of the extent of an external value, 0 for an inline one
+ */
+public record Envelope<Type>(State state, Type value, long target, int length) {
+
+    public enum State {
+        LIVE, FORWARD, RELOCATED, TOMBSTONE
+    }
+
+    public static <Type> Envelope<Type>
+    live(Type value) {
+        return new Envelope<>(State.LIVE, value, 0L, 0);
+    }
+
+    public static <Type> Envelope<Type>
+    relocated(Type value) {
+        return new Envelope<>(State.RELOCATED, value, 0L, 0);
+    }
+
+    public static <Type> Envelope<Type>
+    forward(long target) {
+        return new Envelope<>(State.FORWARD, null, target, 0);
+    }
+
+    public static <Type> Envelope<Type>
+    tombstone() {
+        return new Envelope<>(State.TOMBSTONE, null, 0L, 0);
+    }
+
+    public static <Type> Envelope<Type>
+    external(State state, long address, int length) {
+        assert (state == State.LIVE || state == State.RELOCATED) && length > 0;
+        return new Envelope<>(state, null, address, length);
+    }
+
+    public boolean
+    external() {
+        return length > 0;
+    }
+
+    /**
+     * @return the same value in another state
+     */
+    public Envelope<Type>
+    as(State state) {
+        return new Envelope<>(state, value, target, length);
+    }
+}
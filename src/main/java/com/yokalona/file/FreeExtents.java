@@ -0,0 +1,168 @@
+package com.yokalona.file;
+
+import com.yokalona.array.configuration.File;
+import com.yokalona.array.io.Storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>Extents of whole pages, that were freed, once the external values, they held, were deleted or overwritten.
+ * Extents are kept by address, adjacent ones are merged, and by length, so an extent is {@link #take(long) taken} by
+ * the best fit, the rest of it stays free.</p>
+ * <p>Extents are persisted as a sidecar file of pairs of an address and a length, the whole list is rewritten on
+ * {@link #flush()}, if it changed. Extents, that are missing from the sidecar, are never reused.</p>
+ * <p>Extents are changed under a lock of their own, so an extent is taken without the lock of the file.</p>
+ */
+final class FreeExtents implements AutoCloseable {
+
+    private final int page;
+    private final File file;
+    private final TreeMap<Long, Long> addresses = new TreeMap<>();
+    private final NavigableSet<Extent> lengths = new TreeSet<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private boolean changed;
+    private Storage storage;
+
+    /**
+     * @param page size of a page in bytes, extents are rounded up to
+     * @param file sidecar, the extents are read from, if it exists
+     */
+    FreeExtents(int page, File file) {
+        this.page = page;
+        this.file = file;
+        try {
+            if (!Storage.exists(file)) return;
+            storage = Storage.open(file);
+            byte[] persisted = new byte[(int) storage.size()];
+            storage.readFully(0, persisted, 0, persisted.length);
+            ByteBuffer buffer = ByteBuffer.wrap(persisted);
+            while (buffer.remaining() >= 2 * Long.BYTES) add(buffer.getLong(), buffer.getLong());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return address of a free extent of at least the given number of bytes, or -1 if there is none
+     */
+    long
+    take(long bytes) {
+        long length = round(bytes);
+        lock.lock();
+        try {
+            Extent fit = lengths.ceiling(new Extent(Long.MIN_VALUE, length));
+            if (fit == null) return -1;
+            remove(fit);
+            if (fit.length > length) add(fit.address + length, fit.length - length);
+            changed = true;
+            return fit.address;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frees the extent of the given number of bytes, it is merged with the free extents next to it.
+     */
+    void
+    release(long address, long bytes) {
+        long length = round(bytes);
+        lock.lock();
+        try {
+            Map.Entry<Long, Long> before = addresses.floorEntry(address);
+            if (before != null && before.getKey() + before.getValue() == address) {
+                remove(new Extent(before.getKey(), before.getValue()));
+                address = before.getKey();
+                length += before.getValue();
+            }
+            Long after = addresses.get(address + length);
+            if (after != null) {
+                remove(new Extent(address + length, after));
+                length += after;
+            }
+            add(address, length);
+            changed = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return total number of free bytes
+     */
+    long
+    free() {
+        lock.lock();
+        try {
+            long free = 0;
+            for (long length : addresses.values()) free += length;
+            return free;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void
+    flush() {
+        lock.lock();
+        try {
+            if (!changed) return;
+            if (storage == null) storage = Storage.open(file);
+            ByteBuffer buffer = ByteBuffer.allocate(addresses.size() * 2 * Long.BYTES);
+            for (Map.Entry<Long, Long> extent : addresses.entrySet()) buffer.putLong(extent.getKey()).putLong(extent.getValue());
+            storage.write(0, buffer.array());
+            storage.truncate(buffer.capacity());
+            changed = false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void
+    close() {
+        flush();
+        try {
+            if (storage != null) storage.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long
+    round(long bytes) {
+        return (bytes + page - 1) / page * page;
+    }
+
+    private void
+    add(long address, long length) {
+        addresses.put(address, length);
+        lengths.add(new Extent(address, length));
+    }
+
+    private void
+    remove(Extent extent) {
+        addresses.remove(extent.address);
+        lengths.remove(extent);
+    }
+
+    private record Extent(long address, long length) implements Comparable<Extent> {
+
+        @Override
+        public int
+        compareTo(Extent other) {
+            int compared = Long.compare(length, other.length);
+            return compared != 0 ? compared : Long.compare(address, other.address);
+        }
+    }
+}
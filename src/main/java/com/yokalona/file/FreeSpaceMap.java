@@ -0,0 +1,154 @@
+package com.yokalona.file;
+
+import com.yokalona.array.configuration.File;
+import com.yokalona.array.io.Storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * <p>Free space of every data page, rounded down to one of {@link #BUCKETS} buckets of equal width. Pages of the same
+ * bucket are linked into a list, non-empty buckets are marked in a bit mask, so a page with enough room is
+ * {@link #find(int) found} in constant time. Since free space is rounded down, a page found is guaranteed to have at
+ * least the requested number of free bytes, as long as the map is up to date.</p>
+ * <p>Map is persisted as a sidecar file of a byte per page, only the blocks, that changed since the last
+ * {@link #flush()}, are written. Pages, that are missing from the sidecar, are considered full.</p>
+ */
+final class FreeSpaceMap implements AutoCloseable {
+
+    static final int BUCKETS = Long.SIZE;
+    private static final int BLOCK = 4096;
+    private static final int NONE = -1;
+
+    private final int width;
+    private final File file;
+    private final int[] heads = new int[BUCKETS];
+    private final BitSet changed = new BitSet();
+
+    private long mask;
+    private int pages;
+    private byte[] buckets = new byte[BLOCK];
+    private int[] next = new int[BLOCK];
+    private int[] previous = new int[BLOCK];
+    private Storage storage;
+
+    /**
+     * @param page size of a data page in bytes
+     * @param file sidecar, the map is read from, if it exists
+     */
+    FreeSpaceMap(int page, File file) {
+        assert page >= BUCKETS;
+
+        this.file = file;
+        this.width = page / BUCKETS;
+        Arrays.fill(heads, NONE);
+        try {
+            if (!Storage.exists(file)) return;
+            storage = Storage.open(file);
+            byte[] persisted = new byte[(int) storage.size()];
+            storage.readFully(0, persisted, 0, persisted.length);
+            for (byte bucket : persisted) add(pages++, bucket);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Records the number of free bytes of the page, pages must be recorded in order of their numbers.
+     */
+    void
+    set(int page, int free) {
+        assert page >= 0 && page <= pages;
+
+        int bucket = Math.min(BUCKETS - 1, Math.max(0, free) / width);
+        if (page == pages) {
+            ensure(++pages);
+            add(page, bucket);
+        } else if (buckets[page] != bucket) {
+            unlink(page);
+            add(page, bucket);
+        } else return;
+        changed.set(page / BLOCK);
+    }
+
+    /**
+     * @return page with at least the given number of free bytes, or -1 if there is none
+     */
+    int
+    find(int bytes) {
+        int bucket = (bytes + width - 1) / width;
+        if (bucket >= BUCKETS) return NONE;
+        long candidates = mask & (-1L << bucket);
+        return candidates == 0 ? NONE : heads[Long.numberOfTrailingZeros(candidates)];
+    }
+
+    /**
+     * @return free bytes of the page, rounded down to the width of a bucket
+     */
+    int
+    free(int page) {
+        return buckets[page] * width;
+    }
+
+    int
+    pages() {
+        return pages;
+    }
+
+    void
+    flush() {
+        if (changed.isEmpty()) return;
+        try {
+            if (storage == null) storage = Storage.open(file);
+            for (int block = changed.nextSetBit(0); block >= 0; block = changed.nextSetBit(block + 1)) {
+                int from = block * BLOCK;
+                storage.write(from, buckets, from, Math.min(BLOCK, pages - from));
+            }
+            changed.clear();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void
+    close() {
+        flush();
+        try {
+            if (storage != null) storage.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void
+    ensure(int pages) {
+        if (pages <= buckets.length) return;
+        int capacity = Math.max(pages, buckets.length * 2);
+        buckets = Arrays.copyOf(buckets, capacity);
+        next = Arrays.copyOf(next, capacity);
+        previous = Arrays.copyOf(previous, capacity);
+    }
+
+    private void
+    add(int page, int bucket) {
+        ensure(page + 1);
+        buckets[page] = (byte) bucket;
+        previous[page] = NONE;
+        next[page] = heads[bucket];
+        if (heads[bucket] != NONE) previous[heads[bucket]] = page;
+        heads[bucket] = page;
+        mask |= 1L << bucket;
+    }
+
+    private void
+    unlink(int page) {
+        int bucket = buckets[page];
+        if (previous[page] != NONE) next[previous[page]] = next[page];
+        else heads[bucket] = next[page];
+        if (next[page] != NONE) previous[next[page]] = previous[page];
+        if (heads[bucket] == NONE) mask &= ~(1L << bucket);
+    }
+}
@@ -0,0 +1,162 @@
+package com.yokalona.file;
+
+import com.yokalona.array.io.Storage;
+import com.yokalona.file.page.VSPage;
+import com.yokalona.file.serializers.EnvelopeSerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * <p>Sequential scan of a {@link VSFile}. Pages are read in the order of their numbers, which is not the order of
+ * their addresses: pages of appenders and extents of external values are interleaved within the file. Consecutive
+ * pages, that are adjacent within the file as well, are read in batches of up to {@code batch} pages, each with a
+ * single positional read. Batches are double-buffered: the next batch is read on a virtual thread while the current
+ * one is decoded.</p>
+ * <p>Scan is not a snapshot. The file is flushed, when the scan is started, the addresses of pages are taken at that
+ * moment, and then the pages are read through a handle of the scan, without any lock, while the buffer pool of the
+ * file keeps writing them. A page, that is written concurrently, can be read half-written and fails its checksum with
+ * {@link com.yokalona.file.exceptions.CRCMismatchException}, pages, that are claimed after the start, are not scanned.
+ * Deleted and relocated records are skipped, forwarded records and external values are resolved through the file at
+ * the moment they are reached.</p>
+ */
+public final class Scan<Type> implements Iterator<Type>, AutoCloseable {
+
+    private final int batch;
+    private final long[] addresses;
+    private final VSFile<Type> file;
+    private final Storage storage;
+    private final EnvelopeSerializer<Type> serializer;
+    private final byte[] page = new byte[VSFile.VS_PAGE_SIZE];
+    private final byte[][] buffers = new byte[2][];
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private CompletableFuture<Void> ahead;
+    private int aheadFrom, aheadCount, aheadBuffer;
+    private byte[] buffer;
+    private int from, count, current;
+    private VSPage<Envelope<Type>> decoded;
+    private int number, slot;
+    private boolean ready;
+    private Type value;
+    private long rid = -1;
+
+    Scan(VSFile<Type> file, Storage storage, EnvelopeSerializer<Type> serializer, long[] addresses, int batch) {
+        assert batch > 0;
+
+        this.file = file;
+        this.batch = batch;
+        this.storage = storage;
+        this.addresses = addresses;
+        this.serializer = serializer;
+        this.buffers[0] = new byte[batch * VSFile.VS_PAGE_SIZE];
+        this.buffers[1] = new byte[batch * VSFile.VS_PAGE_SIZE];
+        issue(0, 0);
+    }
+
+    @Override
+    public boolean
+    hasNext() {
+        return ready || (ready = advance());
+    }
+
+    @Override
+    public Type
+    next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        ready = false;
+        return value;
+    }
+
+    /**
+     * @return identifier of the last returned record
+     */
+    public long
+    rid() {
+        return rid;
+    }
+
+    private boolean
+    advance() {
+        while (true) {
+            if (decoded != null && slot < decoded.size()) {
+                Envelope<Type> envelope = decoded.get(slot++);
+                switch (envelope.state()) {
+                    case LIVE -> value = envelope.external() ? file.get(number, slot - 1) : envelope.value();
+                    case FORWARD -> value = file.get(number, slot - 1);
+                    case RELOCATED, TOMBSTONE -> {
+                        continue;
+                    }
+                }
+                rid = VSFile.rid(number, slot - 1);
+                return true;
+            } else if (current < count) {
+                System.arraycopy(buffer, current * page.length, page, 0, page.length);
+                decoded = VSPage.Configurer.create(page).read(serializer);
+                number = from + current++;
+                slot = 0;
+            } else if (ahead != null) {
+                await();
+                buffer = buffers[aheadBuffer];
+                from = aheadFrom;
+                count = aheadCount;
+                current = 0;
+                issue(from + count, 1 - aheadBuffer);
+            } else return false;
+        }
+    }
+
+    /**
+     * Starts reading the batch, that begins with the given page, into one of the buffers.
+     */
+    private void
+    issue(int first, int index) {
+        if (first >= addresses.length) {
+            ahead = null;
+            return;
+        }
+        int pages = 1;
+        while (pages < batch && first + pages < addresses.length
+                && addresses[first + pages] == addresses[first + pages - 1] + page.length) pages++;
+        int length = pages * page.length;
+        aheadFrom = first;
+        aheadCount = pages;
+        aheadBuffer = index;
+        byte[] into = buffers[index];
+        ahead = CompletableFuture.runAsync(() -> {
+            try {
+                storage.readFully(addresses[first], into, 0, length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    private void
+    await() {
+        try {
+            ahead.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw e;
+        }
+    }
+
+    @Override
+    public void
+    close() {
+        try {
+            if (ahead != null) ahead.handle((ignore, error) -> null).join();
+            executor.shutdown();
+            storage.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.yokalona.file;
+
+import com.yokalona.array.configuration.File;
+import com.yokalona.array.io.CachedFile;
+import com.yokalona.array.io.Storage;
+import com.yokalona.array.serializers.VariableSizeSerializer;
+import com.yokalona.file.exceptions.ReadOverflowException;
+import com.yokalona.file.page.VSPage;
+import com.yokalona.file.serializers.EnvelopeSerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>Read-only view of a {@link VSFile}, that is fully written and is never modified again. The file is mapped into
+ * memory, see {@link com.yokalona.array.io.MappedStorage}, so pages are served from the page cache, which is shared by
+ * every process, that reads the file, and no read goes through a system call.</p>
+ * <p>Directory is read once, when the file is opened. Nothing of a page is kept on the heap between reads: every read
+ * copies the whole page from the mapping into a buffer of the reading thread, that is reused, and builds a
+ * {@link VSPage} over the copy, which reads the headers and the free fragments of the page, only the requested record
+ * is decoded. CRC of a page is verified on its first read, verified pages are marked in a bit set, so further reads
+ * skip the check. External values are copied from the mapping on every read.</p>
+ * <p>Sealed file has no lock of its own and can be read from any number of threads. Every copy out of the mapping
+ * takes the read lock of {@link com.yokalona.array.io.MappedStorage}, so readers never wait for each other, only for
+ * the storage being closed. Page might be verified twice, when it is first read concurrently.</p>
+ */
+public final class SealedVSFile<Type> implements Index<Type>, AutoCloseable {
+
+    private final Storage storage;
+    private final CachedFile cachedFile;
+    private final Directory directory;
+    private final EnvelopeSerializer<Type> serializer;
+    private final AtomicLongArray verified;
+    private final ThreadLocal<byte[]> buffer = ThreadLocal.withInitial(() -> new byte[VSFile.VS_PAGE_SIZE]);
+
+    public SealedVSFile(VariableSizeSerializer<Type> serializer, Path path) throws IOException {
+        this.serializer = new EnvelopeSerializer<>(serializer);
+        this.cachedFile = new CachedFile(File.file(path).mode(File.Mode.R).backend(File.Backend.MAPPED).cached());
+        try {
+            this.storage = cachedFile.get();
+            this.directory = Directory.read(cachedFile, VSFile.length(path), VSFile.AS_PAGE_SIZE, VSFile.VS_PAGE_SIZE);
+        } catch (RuntimeException e) {
+            cachedFile.closeFile();
+            throw e;
+        }
+        this.verified = new AtomicLongArray((directory.pages() + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    /**
+     * @return value of the record, or {@code null} if the record was deleted
+     */
+    public Type
+    get(int page, int slot) {
+        Envelope<Type> envelope = envelope(page, slot);
+        return switch (envelope.state()) {
+            case LIVE -> resolve(envelope);
+            case FORWARD -> resolve(envelope(VSFile.page(envelope.target()), VSFile.slot(envelope.target())));
+            case RELOCATED, TOMBSTONE -> null;
+        };
+    }
+
+    public Type
+    get(long ordinal) {
+        long rid = locate(ordinal);
+        return get(VSFile.page(rid), VSFile.slot(rid));
+    }
+
+    /**
+     * @return identifier of the record with the given ordinal
+     */
+    public long
+    locate(long ordinal) {
+        long records = directory.records();
+        if (ordinal < 0 || ordinal >= records) throw new ReadOverflowException((int) Math.min(records, Integer.MAX_VALUE), (int) ordinal);
+        int page = directory.page(ordinal);
+        return VSFile.rid(page, (int) (ordinal - directory.first(page)));
+    }
+
+    /**
+     * @return number of records, including deleted ones, that were not compacted
+     */
+    public long
+    size() {
+        return directory.records();
+    }
+
+    public int
+    pages() {
+        return directory.pages();
+    }
+
+    /**
+     * Copies the page out of the mapping and decodes the envelope of the slot, the page is verified on its first read.
+     */
+    private Envelope<Type>
+    envelope(int page, int slot) {
+        if (page < 0 || page >= directory.pages()) throw new ReadOverflowException(directory.pages(), page);
+        byte[] bytes = buffer.get();
+        try {
+            storage.readFully(directory.address(page), bytes, 0, bytes.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long bit = 1L << page;
+        boolean verify = (verified.get(page / Long.SIZE) & bit) == 0;
+        VSPage.Configurer configurer = VSPage.Configurer.create(bytes, 0, bytes.length);
+        VSPage<Envelope<Type>> decoded = (verify ? configurer : configurer.verified()).read(serializer);
+        if (verify) verified.getAndUpdate(page / Long.SIZE, word -> word | bit);
+        if (slot < 0 || slot >= decoded.size()) throw new ReadOverflowException(decoded.size(), slot);
+        return decoded.get(slot);
+    }
+
+    private Type
+    resolve(Envelope<Type> envelope) {
+        if (!envelope.external()) return envelope.value();
+        byte[] bytes = new byte[envelope.length()];
+        try {
+            storage.readFully(envelope.target(), bytes, 0, bytes.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return serializer.serializer().deserialize(bytes, 0);
+    }
+
+    @Override
+    public void
+    close() {
+        cachedFile.closeFile();
+    }
+}
@@ -2,118 +2,774 @@ package com.yokalona.file;
 
 import com.yokalona.array.configuration.File;
 import com.yokalona.array.io.CachedFile;
-import com.yokalona.array.io.InputReader;
-import com.yokalona.array.io.OutputWriter;
+import com.yokalona.array.io.Storage;
 import com.yokalona.array.serializers.FixedSizeSerializer;
 import com.yokalona.array.serializers.VariableSizeSerializer;
-import com.yokalona.array.serializers.primitives.CompactIntegerSerializer;
 import com.yokalona.array.serializers.primitives.IntegerSerializer;
 import com.yokalona.array.serializers.primitives.LongSerializer;
-import com.yokalona.file.headers.CRC;
-import com.yokalona.file.headers.Fixed;
+import com.yokalona.file.exceptions.NoFreeFrameException;
+import com.yokalona.file.exceptions.NoFreeSpaceLeftException;
+import com.yokalona.file.exceptions.ReadOverflowException;
+import com.yokalona.file.serializers.EnvelopeSerializer;
 import com.yokalona.file.page.FSPage;
-import com.yokalona.file.page.ArrayPage;
 import com.yokalona.file.page.VSPage;
+import com.yokalona.jmx.Management;
+import com.yokalona.jmx.VSFileMXBean;
 
+import javax.management.ObjectName;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
-public class VSFile<Type> implements Index<Type> {
+/**
+ * <p>File of variable-size records. Records are appended into {@link VSPage pages} of {@link #VS_PAGE_SIZE} bytes,
+ * pages are found through the {@link Directory}: a tree of {@link FSPage pointer pages} of {@link #AS_PAGE_SIZE}
+ * bytes, rooted at the beginning of the file, that grows along with the file.</p>
+ * <p>Record is identified either by its page and slot within the page, or by its ordinal, which is resolved through
+ * the counts of records kept by the directory. Either way a read touches exactly one page.</p>
+ * <p>Pages are cached in a {@link BufferPool}. The last page stays pinned while records are appended into it, a full
+ * page is released dirty and is written once it is evicted or on {@link #flush()}, the directory is written on flush.</p>
+ * <p>Free space of every page is tracked by the {@link FreeSpaceMap}, which is kept in a sidecar file. Records are
+ * either appended after the last record, or {@link #insert(Object) inserted} into any page, that has room.</p>
+ * <p>Records are stored in {@link Envelope envelopes}, so a record keeps its identifier, {@link #rid(int, int) rid},
+ * for as long as it lives. Record is updated in place, while it fits, otherwise it is relocated and a forward is left
+ * in its place. Deleted record leaves a tombstone, that keeps its slot for good, so a rid is never reused for another
+ * record. Deleted and relocated records read as {@code null}. Sparse pages are defragmented in the background by the
+ * {@link Compactor}, if {@link Configuration#compaction()} is configured.</p>
+ * <p>Values, that take more than {@link #VS_OVERFLOW} bytes, are stored externally: each in its own extent of whole
+ * pages, written and read with a single I/O, the page holds only the address and the length of the extent. Extents of
+ * deleted and overwritten values are kept in {@link FreeExtents}, in a sidecar file of their own, and are reused.</p>
+ * <p>Every operation runs under the lock of the file. Concurrent producers append through {@link #appender()
+ * appenders}, that never wait for the lock of the file: each appender owns a page of its own and fills it under its
+ * own lock, external values are written into extents, that are taken under the lock of {@link FreeExtents} only.
+ * Number and space of the next page are claimed atomically, counts of records are published through a queue. Claimed
+ * pages and published counts are settled into the directory by the next operation of the file. Each page of an
+ * appender keeps a frame of the pool pinned, so at most {@link Configuration#frames()} - 2 appenders own pages at
+ * once, two frames are left to the tail page and to the operations of the file.</p>
+ */
+public class VSFile<Type> implements Index<Type>, AutoCloseable {
 
     public static int VS_PAGE_SIZE = 4096;
     public static float VS_PAGE_DISTRIBUTION = .1F;
     public static int AS_PAGE_SIZE = 4096;
+    public static int SCAN_BATCH = 32;
+    public static int VS_OVERFLOW = VS_PAGE_SIZE / 4;
 
-    private final ArrayPage<PagePointer> index;
+    private final Directory directory;
     private final CachedFile cachedFile;
-    private final VariableSizeSerializer<Type> serializer;
-    private final byte[] vsBuffer = new byte[VS_PAGE_SIZE];
+    private final EnvelopeSerializer<Type> serializer;
+    private final BufferPool pool;
+    private final FreeSpaceMap space;
+    private final FreeExtents extents;
+    private final Compactor compactor;
+    private final int reserve;
+    private final BitSet sparse = new BitSet();
+    private final Map<Integer, Appender> owners = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> claims = new ConcurrentHashMap<>();
+    private final Queue<Published> published = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger claimed = new AtomicInteger();
+    private final AtomicInteger owned = new AtomicInteger();
+    private final int appenders;
+    private final ReentrantLock lock = new ReentrantLock();
 
-    private int lastRead = -1;
+    private final File file;
+    private final Path path;
+    private final ObjectName management;
 
+    private VSPage<Envelope<Type>> tail;
+    private BufferPool.Frame frame;
+    private int last;
+    private boolean dirty;
+    private boolean closed;
+    private long records;
+
+    /**
+     * Opens the file, if it already exists, its directory is read, otherwise an empty file is created on the first append.
+     */
     public VSFile(VariableSizeSerializer<Type> serializer, Configuration configuration) throws IOException {
-        long blockSize = Files.getFileStore(configuration.file.path().getParent()).getBlockSize();
+        int length = length(configuration.file.path());
 
-        this.serializer = serializer;
+        this.serializer = new EnvelopeSerializer<>(serializer);
+        this.file = configuration.file;
+        this.path = configuration.file.path();
         this.cachedFile = new CachedFile(configuration.file);
-        this.index = FSPage.Configurer.create(Math.min((int) blockSize, AS_PAGE_SIZE))
-                .addHeader(new CRC())
-                .addHeader(new Fixed<>(6, new CompactIntegerSerializer(1)))
-                .fspage(new PagePointerSerializer());
+        File sidecar = configuration.file.relocate(sidecar(path, ".fsm"));
+        File freed = configuration.file.relocate(sidecar(path, ".fex"));
+        this.pool = new BufferPool(cachedFile, configuration.frames, VS_PAGE_SIZE);
+        if (Storage.exists(configuration.file) && size(configuration.file) >= length) {
+            this.directory = Directory.read(cachedFile, length, AS_PAGE_SIZE, VS_PAGE_SIZE);
+            this.records = directory.records();
+        } else {
+            this.directory = Directory.create(cachedFile, length, AS_PAGE_SIZE, VS_PAGE_SIZE);
+            Storage.delete(sidecar);
+            Storage.delete(freed);
+        }
+        this.reserve = (int) ((1F - configuration.fill) * VS_PAGE_SIZE);
+        this.appenders = configuration.frames - 2;
+        this.space = new FreeSpaceMap(VS_PAGE_SIZE, sidecar);
+        for (int page = space.pages(); page < directory.pages(); page++) space.set(page, 0);
+        this.extents = new FreeExtents(VS_PAGE_SIZE, freed);
+        this.claimed.set(directory.pages());
+        this.compactor = configuration.compaction.executor() == null ? null : new Compactor(this, configuration.compaction);
+        this.management = configuration.managed
+                ? Management.register(new Managed(), "VSFile", configuration.file.path()) : null;
     }
 
-    public void
+    public static long
+    rid(int page, int slot) {
+        return (long) page << Integer.SIZE | slot & 0xFFFFFFFFL;
+    }
+
+    public static int
+    page(long rid) {
+        return (int) (rid >>> Integer.SIZE);
+    }
+
+    public static int
+    slot(long rid) {
+        return (int) rid;
+    }
+
+    /**
+     * @return ordinal of the appended record
+     */
+    public long
     append(Type value) {
-        if (index.size() == 0) {
-            create();
+        lock.lock();
+        try {
+            push(wrap(value, Envelope.State.LIVE));
+            return records - 1;
+        } finally {
+            lock.unlock();
         }
-        PagePointer last = index.last();
-        if (lastRead != index.size() - 1) {
-            if (lastRead >= 0) {
-                PagePointer prior = index.get(lastRead);
-                writePage(prior.address(), VSPage.Configurer.create(vsBuffer).read(serializer));
-                updateIndex();
+    }
+
+    /**
+     * Appends records back to back, pages are filled without touching the directory, which is updated once at the end of
+     * the batch. Completed pages are released to the pool and the batch is {@link #flush() flushed}, so adjacent pages
+     * are written sequentially.
+     *
+     * @return ordinal of the first appended record
+     */
+    public long
+    appendAll(Iterable<Type> values) {
+        lock.lock();
+        try {
+            long first = records;
+            for (Type value : values) {
+                Envelope<Type> envelope = wrap(value, Envelope.State.LIVE);
+                reserve(envelope);
+                tail.append(envelope);
+                records++;
             }
+            if (records == first) return first;
+            seal();
+            dirty = true;
+            flush();
+            return first;
+        } finally {
+            lock.unlock();
+        }
+    }
 
-            try (cachedFile) {
-                InputReader reader = cachedFile.reader(vsBuffer);
-                reader.seek(last.address());
-                reader.refill();
-            } catch (IOException e) {
-                throw new RuntimeException(e);
+    /**
+     * Places the record into a page, that has room for it, leaving the reserve configured by
+     * {@link Configuration#fill()}. Record is appended, if there is no such page. Ordinals of records of the pages
+     * after the chosen one are shifted by one.
+     *
+     * @return ordinal of the inserted record
+     */
+    public long
+    insert(Type value) {
+        lock.lock();
+        try {
+            settle();
+            long rid = place(wrap(value, Envelope.State.LIVE));
+            return directory.first(page(rid)) + slot(rid);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Creates an appender, that fills pages of its own, so appenders of different threads do not contend for the
+     * tail page of the file. At most {@link Configuration#frames()} - 2 appenders can own pages at once, an appender
+     * beyond that throws {@link NoFreeFrameException} on append, till another appender is closed.
+     */
+    public Appender
+    appender() {
+        return new Appender();
+    }
+
+    /**
+     * @return value of the record, or {@code null} if the record was deleted
+     */
+    public Type
+    get(int page, int slot) {
+        lock.lock();
+        try {
+            Envelope<Type> envelope = envelope(page, slot);
+            return switch (envelope.state()) {
+                case LIVE -> resolve(envelope);
+                case FORWARD -> resolve(envelope(page(envelope.target()), slot(envelope.target())));
+                case RELOCATED, TOMBSTONE -> null;
+            };
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Type
+    get(long ordinal) {
+        long rid = locate(ordinal);
+        return get(page(rid), slot(rid));
+    }
+
+    /**
+     * @return identifier of the record with the given ordinal
+     */
+    public long
+    locate(long ordinal) {
+        lock.lock();
+        try {
+            settle();
+            if (ordinal < 0 || ordinal >= records) throw new ReadOverflowException((int) Math.min(records, Integer.MAX_VALUE), (int) ordinal);
+            int page = directory.page(ordinal);
+            return rid(page, (int) (ordinal - directory.first(page)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the value of the record. Record is changed in place if the value fits, otherwise the value is
+     * relocated into a page with room and the record is forwarded to it.
+     *
+     * @return whether the record exists
+     */
+    public boolean
+    update(long rid, Type value) {
+        lock.lock();
+        try {
+            Envelope<Type> envelope = envelope(page(rid), slot(rid));
+            switch (envelope.state()) {
+                case LIVE -> replace(rid, envelope, wrap(value, Envelope.State.LIVE));
+                case FORWARD -> {
+                    long target = envelope.target();
+                    Envelope<Type> current = envelope(page(target), slot(target));
+                    Envelope<Type> relocated = wrap(value, Envelope.State.RELOCATED);
+                    if (!replace(target, current, relocated)) {
+                        store(rid, Envelope.forward(place(relocated)));
+                        store(target, Envelope.tombstone());
+                    }
+                }
+                case RELOCATED, TOMBSTONE -> {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the record with a tombstone, along with the relocated value, if the record was forwarded.
+     *
+     * @return whether the record existed
+     */
+    public boolean
+    delete(long rid) {
+        lock.lock();
+        try {
+            Envelope<Type> envelope = envelope(page(rid), slot(rid));
+            switch (envelope.state()) {
+                case LIVE -> store(rid, Envelope.tombstone());
+                case FORWARD -> {
+                    store(envelope.target(), Envelope.tombstone());
+                    store(rid, Envelope.tombstone());
+                }
+                case RELOCATED, TOMBSTONE -> {
+                    return false;
+                }
             }
-            lastRead = index.size() - 1;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Flushes the file and starts a {@link Scan scan} of it. Scan is not isolated from writes, that follow, see
+     * {@link Scan}.
+     *
+     * @param batch maximum number of pages read at once
+     */
+    public Scan<Type>
+    scan(int batch) {
+        lock.lock();
+        try {
+            flush();
+            return new Scan<>(this, Storage.open(file), serializer, directory.addresses(), batch);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Scan<Type>
+    scan() {
+        return scan(SCAN_BATCH);
+    }
+
+    /**
+     * @return number of records, including deleted and relocated ones, which keep their slots
+     */
+    public long
+    size() {
+        lock.lock();
+        try {
+            settle();
+            return records;
+        } finally {
+            lock.unlock();
         }
+    }
 
-        VSPage<Type> page = VSPage.Configurer.create(vsBuffer).read(serializer);
-        if (!page.fits(value)) {
-            create();
-            append(value);
-            return;
+    public int
+    pages() {
+        lock.lock();
+        try {
+            settle();
+            return directory.pages();
+        } finally {
+            lock.unlock();
         }
-        int size = page.append(value);
-        page.flush();
-        this.index.set(index.size() - 1, new PagePointer(last.address(), size));
-//        writePage(last.address(), page);
-//        updateIndex();
     }
 
+    /**
+     * Writes every dirty page and the changed part of the directory, if anything was appended since the last flush.
+     * Pages of appenders are written as of the moment, each of them is {@link Appender#checkpoint() checkpointed}.
+     */
     public void
-    create() {
-        VSPage<Type> page = VSPage.Configurer.create(vsBuffer).distribute(VS_PAGE_DISTRIBUTION).vspage(serializer);
-        long address = AS_PAGE_SIZE + (long) this.index.size() * VS_PAGE_SIZE;
-        this.index.append(new PagePointer(address, 0));
-        writePage(address, page);
-        updateIndex();
+    flush() {
+        lock.lock();
+        try {
+            for (Appender appender : owners.values()) appender.checkpoint();
+            settle();
+            if (!dirty) return;
+            if (tail != null) {
+                tail.flush();
+                pool.dirty(frame);
+                space.set(last, tail.free());
+            }
+            pool.flush();
+            directory.flush();
+            space.flush();
+            extents.flush();
+            dirty = false;
+        } finally {
+            lock.unlock();
+        }
     }
 
-    private void
-    writePage(long address, VSPage<Type> page) {
-        page.flush();
+    /**
+     * @return first sparse page, or -1 if there is none
+     */
+    int
+    sparse() {
+        lock.lock();
+        try {
+            return closed ? -1 : sparse.nextSetBit(0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Defragments the page. Tombstones keep their slots, so identifiers of deleted records are never handed out again.
+     *
+     * @return number of bytes of I/O, compaction is charged with
+     */
+    @SuppressWarnings("unchecked")
+    long
+    compact(int page) {
+        lock.lock();
+        try {
+            settle();
+            sparse.clear(page);
+            if (closed || page >= directory.pages() || owners.containsKey(page)) return 0;
+            BufferPool.Frame frame = pool.pin(directory.address(page), false);
+            try {
+                VSPage<Envelope<Type>> compacted = page(frame);
+                compacted.defragmentation((Class<Envelope<Type>>) (Class<?>) Envelope.class);
+                compacted.flush();
+                space.set(page, compacted.free());
+                dirty = true;
+            } finally {
+                pool.unpin(frame, true);
+            }
+            return 2L * VS_PAGE_SIZE;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends the record after the last one.
+     *
+     * @return identifier of the record
+     */
+    private long
+    push(Envelope<Type> envelope) {
+        reserve(envelope);
+        tail.append(envelope);
+        seal();
+        dirty = true;
+        records++;
+        return rid(last, tail.size() - 1);
+    }
+
+    /**
+     * Places the record into a page, that has room for it, leaving the reserve configured by
+     * {@link Configuration#fill()}, or appends it if there is no such page.
+     *
+     * @return identifier of the record
+     */
+    private long
+    place(Envelope<Type> envelope) {
+        int size = serializer.sizeOf(envelope);
+        int page = space.find(size + reserve);
+        if (page < 0) return push(envelope);
+        BufferPool.Frame frame = pool.pin(directory.address(page), false);
+        boolean changed = false;
+        try {
+            VSPage<Envelope<Type>> target = page(frame);
+            if (!target.fits(envelope) || target.free() - size < reserve) {
+                space.set(page, Math.min(target.free(), size + reserve - 1));
+                return push(envelope);
+            }
+            int slot = target.append(envelope) - 1;
+            target.flush();
+            changed = true;
+            space.set(page, target.free());
+            directory.update(page, target.size());
+            records++;
+            dirty = true;
+            return rid(page, slot);
+        } finally {
+            pool.unpin(frame, changed);
+        }
+    }
+
+    /**
+     * Replaces the envelope in place, if the new one fits into the space of the current one.
+     *
+     * @return whether the envelope was replaced
+     */
+    private boolean
+    replace(long rid, Envelope<Type> current, Envelope<Type> next) {
+        int size = serializer.sizeOf(current);
+        if (serializer.sizeOf(next) <= size) store(rid, next);
+        else if (current.state() == Envelope.State.LIVE) store(rid, Envelope.forward(place(next.as(Envelope.State.RELOCATED))));
+        else return false;
+        return true;
+    }
+
+    /**
+     * Wraps the value into an envelope, a value larger than {@link #VS_OVERFLOW} is written into an extent first. The
+     * extent is either taken from {@link FreeExtents} or allocated atomically, so it is written without the lock of the
+     * file.
+     */
+    private Envelope<Type>
+    wrap(Type value, Envelope.State state) {
+        if (serializer.inline(value) <= VS_OVERFLOW) return new Envelope<>(state, value, 0L, 0);
+        byte[] bytes = new byte[serializer.serializer().sizeOf(value)];
+        serializer.serializer().serialize(value, bytes, 0);
+        long address = extents.take(bytes.length);
+        if (address < 0) address = directory.allocate(bytes.length);
         try (cachedFile) {
-            OutputWriter writer = cachedFile.writer(vsBuffer);
-            writer.seek(address);
-            writer.flushAll();
+            cachedFile.get().write(address, bytes);
+            return Envelope.external(state, address, bytes.length);
         } catch (IOException e) {
-            throw new RuntimeException(e);
+            throw new UncheckedIOException(e);
         }
     }
 
-    private void
-    updateIndex() {
+    /**
+     * @return value of the envelope, an external value is read from its extent
+     */
+    Type
+    resolve(Envelope<Type> envelope) {
+        if (!envelope.external()) return envelope.value();
+        lock.lock();
         try (cachedFile) {
-            OutputWriter writer = cachedFile.writer(this.index.configuration().page());
-            this.index.flush();
-            writer.seek(0L);
-            writer.flushAll();
+            byte[] bytes = new byte[envelope.length()];
+            cachedFile.get().readFully(envelope.target(), bytes, 0, bytes.length);
+            return serializer.serializer().deserialize(bytes, 0);
         } catch (IOException e) {
-            throw new RuntimeException(e);
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads the envelope from the page of its appender, if the page is still owned, otherwise the page is read through
+     * the directory, once whatever the appender published is settled.
+     */
+    private Envelope<Type>
+    envelope(int page, int slot) {
+        Appender owner = owners.get(page);
+        Envelope<Type> owned = owner == null ? null : owner.get(page, slot);
+        if (owned != null) return owned;
+        settle();
+        if (page < 0 || page >= directory.pages()) throw new ReadOverflowException(directory.pages(), page);
+        int size = directory.size(page);
+        if (slot < 0 || slot >= size) throw new ReadOverflowException(size, slot);
+        if (tail != null && page == last) return tail.get(slot);
+        BufferPool.Frame frame = pool.pin(directory.address(page), false);
+        try {
+            return page(frame).get(slot);
+        } finally {
+            pool.unpin(frame, false);
+        }
+    }
+
+    /**
+     * Replaces the envelope, the page is marked as sparse, if the envelope shrinks. Page of an appender is changed under
+     * the lock of the appender and is left out of the free space map and the dirty frames of the pool, until the
+     * appender releases it. Extent of the replaced external value is freed, so it is reused by the next external value,
+     * that fits. Shrinking envelope frees the rest of its space as a fragment, once the page can track no more
+     * fragments, the page is defragmented in place, as {@link #compact(int)} does, and the envelope is stored again.
+     */
+    @SuppressWarnings("unchecked")
+    private void
+    store(long rid, Envelope<Type> envelope) {
+        int page = page(rid);
+        Appender owner = owners.get(page);
+        BufferPool.Frame frame = pool.pin(directory.address(page), false);
+        if (owner != null) owner.guard.lock();
+        if (owner != null && !owner.owns(page)) {
+            owner.guard.unlock();
+            owner = null;
+        }
+        try {
+            VSPage<Envelope<Type>> target = page(frame);
+            Envelope<Type> previous = target.get(slot(rid));
+            int size = serializer.sizeOf(previous);
+            try {
+                target.set(slot(rid), envelope);
+            } catch (NoFreeSpaceLeftException e) {
+                target.defragmentation((Class<Envelope<Type>>) (Class<?>) Envelope.class);
+                target.set(slot(rid), envelope);
+            }
+            target.flush();
+            if (owner == null) space.set(page, target.free());
+            if (previous.external() && (!envelope.external() || envelope.target() != previous.target()))
+                extents.release(previous.target(), previous.length());
+            if (serializer.sizeOf(envelope) < size && !sparse.get(page)) {
+                sparse.set(page);
+                if (compactor != null) compactor.signal();
+            }
+        } finally {
+            if (owner != null) owner.guard.unlock();
+            pool.unpin(frame, owner == null);
+        }
+        dirty = true;
+    }
+
+    /**
+     * Makes sure, that the tail page is the last page of the file, is loaded and has room for the value. The full tail
+     * page, or the one an appender allocated pages after, is released dirty. Last page, that its appender released,
+     * is taken over once the count, the appender published, is settled.
+     */
+    private void
+    reserve(Envelope<Type> value) {
+        settle();
+        if (tail != null && (last != directory.pages() - 1 || !tail.fits(value))) release();
+        if (tail != null) return;
+        int candidate = directory.pages() - 1;
+        if (candidate < 0 || owners.containsKey(candidate)) create();
+        else {
+            settle();
+            last = candidate;
+            frame = pool.pin(directory.address(last), false);
+            tail = page(frame);
+            if (!tail.fits(value)) {
+                release();
+                create();
+            }
+        }
+    }
+
+    private void
+    release() {
+        seal();
+        space.set(last, tail.free());
+        tail.flush();
+        pool.unpin(frame, true);
+        tail = null;
+        frame = null;
+    }
+
+    /**
+     * Records the number of records within the tail page into the directory.
+     */
+    private void
+    seal() {
+        if (directory.size(last) != tail.size()) directory.update(last, tail.size());
+    }
+
+    private void
+    create() {
+        frame = allocate();
+        tail = page(frame);
+        last = claim(frame, null);
+        settle();
+    }
+
+    /**
+     * Allocates space for an empty page at the end of the file, no lock of the file is needed.
+     *
+     * @return pinned frame of the page
+     */
+    private BufferPool.Frame
+    allocate() {
+        BufferPool.Frame frame = pool.pin(directory.allocate(), true);
+        frame.attach(VSPage.Configurer.create(frame.data()).distribute(VS_PAGE_DISTRIBUTION).vspage(serializer));
+        return frame;
+    }
+
+    /**
+     * Claims the number of the next page for the allocated frame, no lock of the file is needed. The page is added to
+     * the directory by the next {@link #settle()}, it is owned by the appender from the moment, it can be seen.
+     *
+     * @return number of the page
+     */
+    private int
+    claim(BufferPool.Frame frame, Appender owner) {
+        int number = claimed.getAndIncrement();
+        if (owner != null) owners.put(number, owner);
+        claims.put(number, frame.address());
+        return number;
+    }
+
+    /**
+     * Adds claimed pages to the directory in order of their numbers and applies the counts, appenders published. Lock
+     * of the file must be held.
+     */
+    private void
+    settle() {
+        register(claimed.get());
+        for (Published page; (page = published.poll()) != null; ) {
+            register(page.number + 1);
+            int size = directory.size(page.number);
+            if (page.size > size) {
+                records += page.size - size;
+                directory.update(page.number, page.size);
+            }
+            if (page.released) space.set(page.number, page.free);
+            dirty = true;
+        }
+    }
+
+    /**
+     * Adds claimed pages to the directory up to the given number of pages. The page is left out of the free space map,
+     * until it is released. Page number is claimed right before its address is recorded, so a gap is waited out.
+     */
+    private void
+    register(int pages) {
+        for (int number = directory.pages(); number < pages; number++) {
+            Long address;
+            while ((address = claims.remove(number)) == null) Thread.onSpinWait();
+            directory.add(address, 0);
+            space.set(number, 0);
+            dirty = true;
+        }
+    }
+
+    /**
+     * Settles the directory, unless the lock of the file is busy, its holder settles it then.
+     */
+    private void
+    trySettle() {
+        if (!lock.tryLock()) return;
+        try {
+            settle();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frame must be pinned, parsed page is kept as the attachment of the frame.
+     */
+    @SuppressWarnings("unchecked")
+    private VSPage<Envelope<Type>>
+    page(BufferPool.Frame frame) {
+        if (frame.attachment() == null) frame.attach(VSPage.Configurer.create(frame.data()).read(serializer));
+        return (VSPage<Envelope<Type>>) frame.attachment();
+    }
+
+    @Override
+    public void
+    close() {
+        if (compactor != null) compactor.close();
+        lock.lock();
+        try {
+            for (Appender appender : owners.values()) appender.close();
+            flush();
+            closed = true;
+            space.close();
+            extents.close();
+            Management.unregister(management);
+            cachedFile.closeFile();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return length of a directory node of the file, at most a block of the file store
+     */
+    static int
+    length(Path path) throws IOException {
+        long blockSize = Files.getFileStore(path.toAbsolutePath().getParent()).getBlockSize();
+        return Math.min((int) blockSize, AS_PAGE_SIZE);
+    }
+
+    private static Path
+    sidecar(Path path, String extension) {
+        return path.resolveSibling(path.getFileName() + extension);
+    }
+
+    private static long
+    size(File file) throws IOException {
+        try (Storage storage = Storage.open(file)) {
+            return storage.size();
         }
     }
 
     record PagePointer(long address, int size) {
     }
 
+    /**
+     * Count of records of a page of an appender, free space is recorded once the page is released.
+     */
+    private record Published(int number, int size, int free, boolean released) {
+    }
+
     static class PagePointerSerializer implements FixedSizeSerializer<PagePointer> {
 
         public static final PagePointerSerializer INSTANCE = new PagePointerSerializer();
@@ -138,6 +794,253 @@ public class VSFile<Type> implements Index<Type> {
         }
     }
 
-    public record Configuration(File file) {
+    /**
+     * <p>Producer of records, that appends into a page of its own. Records are serialized into the page under the lock
+     * of the appender only, the lock of the file is never waited for: the next page is claimed atomically, see
+     * {@link Directory#allocate()}, counts of records are published through a queue, that is settled by any operation
+     * of the file.</p>
+     * <p>Record can be read by its identifier as soon as it is appended, records are counted and can be located by
+     * ordinals once they are published: when the page is full, on {@link #publish()}, on {@link VSFile#flush()} or on
+     * {@link #close()}. Pages of different appenders are interleaved within the file, so are ordinals of their
+     * records. Each appender keeps the frame of its page pinned in the {@link BufferPool}.</p>
+     */
+    public final class Appender implements AutoCloseable {
+
+        private final ReentrantLock guard = new ReentrantLock();
+
+        private int number;
+        private BufferPool.Frame frame;
+        private VSPage<Envelope<Type>> page;
+
+        private Appender() {
+        }
+
+        /**
+         * @return identifier of the appended record
+         */
+        public long
+        append(Type value) {
+            Envelope<Type> envelope = wrap(value, Envelope.State.LIVE);
+            guard.lock();
+            try {
+                if (page == null || !page.fits(envelope)) rotate();
+                return rid(number, page.append(envelope) - 1);
+            } finally {
+                guard.unlock();
+            }
+        }
+
+        /**
+         * Publishes appended records, the page stays owned by the appender.
+         */
+        public void
+        publish() {
+            guard.lock();
+            try {
+                publish(false);
+            } finally {
+                guard.unlock();
+            }
+            trySettle();
+        }
+
+        /**
+         * Publishes appended records and releases the page, the appender can be used further, it allocates a new page
+         * on the next append.
+         */
+        @Override
+        public void
+        close() {
+            guard.lock();
+            try {
+                publish(true);
+            } finally {
+                guard.unlock();
+            }
+            trySettle();
+        }
+
+        /**
+         * Releases the full page and claims a new one. Lock of the appender must be held.
+         */
+        private void
+        rotate() {
+            publish(true);
+            if (owned.incrementAndGet() > appenders) {
+                owned.decrementAndGet();
+                throw new NoFreeFrameException(appenders + 2);
+            }
+            try {
+                frame = allocate();
+            } catch (RuntimeException e) {
+                owned.decrementAndGet();
+                throw e;
+            }
+            page = page(frame);
+            number = claim(frame, this);
+        }
+
+        /**
+         * Queues the number of records within the page. Released page is dirtied in the pool before it is disowned,
+         * so a reader, that finds no owner, finds the page through the directory once it is settled. Lock of the
+         * appender must be held.
+         *
+         * @param release whether the page is released to the pool and the free space map
+         */
+        private void
+        publish(boolean release) {
+            if (page == null) return;
+            page.flush();
+            Published count = new Published(number, page.size(), page.free(), release);
+            if (release) pool.unpin(frame, true);
+            published.add(count);
+            if (!release) return;
+            owners.remove(number);
+            owned.decrementAndGet();
+            frame = null;
+            page = null;
+        }
+
+        /**
+         * Publishes appended records and writes a copy of the page, taken under the lock of the appender, so the
+         * appender is held only for the copy, not for the write. Frame stays pinned till the copy is written, so a
+         * newer content of the page, released meanwhile, is not evicted before it. Lock of the file must be held.
+         */
+        private void
+        checkpoint() {
+            BufferPool.Frame pinned;
+            byte[] copy;
+            guard.lock();
+            try {
+                if (page == null) return;
+                publish(false);
+                pinned = pool.pin(frame.address(), false);
+                copy = frame.data().clone();
+            } finally {
+                guard.unlock();
+            }
+            try (cachedFile) {
+                cachedFile.get().write(pinned.address(), copy);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                pool.unpin(pinned, false);
+            }
+        }
+
+        private boolean
+        owns(int number) {
+            return page != null && this.number == number;
+        }
+
+        /**
+         * @return envelope of the slot, or {@code null}, if the page is not owned by the appender anymore
+         */
+        private Envelope<Type>
+        get(int number, int slot) {
+            guard.lock();
+            try {
+                if (!owns(number)) return null;
+                if (slot < 0 || slot >= page.size()) throw new ReadOverflowException(page.size(), slot);
+                return page.get(slot);
+            } finally {
+                guard.unlock();
+            }
+        }
+    }
+
+    private final class Managed implements VSFileMXBean {
+
+        @Override
+        public String
+        getFile() {
+            return path.toString();
+        }
+
+        @Override
+        public int
+        getPages() {
+            return directory.pages();
+        }
+
+        @Override
+        public long
+        getRecords() {
+            return records;
+        }
+
+        @Override
+        public long
+        getPageReads() {
+            return directory.reads() + pool.reads();
+        }
+
+        @Override
+        public long
+        getPageWrites() {
+            return directory.writes() + pool.writes();
+        }
+
+        @Override
+        public long
+        getBytesRead() {
+            return directory.bytesRead() + pool.bytesRead();
+        }
+
+        @Override
+        public long
+        getBytesWritten() {
+            return directory.bytesWritten() + pool.bytesWritten();
+        }
+    }
+
+    /**
+     * @param managed whether to register an MBean for the file while it is open
+     * @param frames  number of page frames in the buffer pool
+     * @param fill       share of a page, that {@link #insert(Object) inserts} may fill, the rest is left for updates
+     * @param compaction of sparse pages in the background
+     */
+    public record Configuration(File file, boolean managed, int frames, float fill, Compaction compaction) {
+
+        public Configuration {
+            assert frames > 1 && fill > 0F && fill <= 1F && compaction != null;
+        }
+
+        public Configuration(File file, boolean managed, int frames, float fill) {
+            this(file, managed, frames, fill, Compaction.none());
+        }
+
+        public Configuration(File file, boolean managed, int frames) {
+            this(file, managed, frames, 1F);
+        }
+
+        public Configuration(File file, boolean managed) {
+            this(file, managed, 64);
+        }
+
+        public Configuration(File file) {
+            this(file, false);
+        }
+    }
+
+    /**
+     * @param executor compaction runs on, no compaction if {@code null}
+     * @param rate     maximum rate of compaction I/O in bytes per second
+     */
+    public record Compaction(Executor executor, long rate) {
+
+        public Compaction {
+            assert executor == null || rate > 0;
+        }
+
+        public static Compaction
+        none() {
+            return new Compaction(null, 0);
+        }
+
+        public static Compaction
+        on(Executor executor, long rate) {
+            return new Compaction(executor, rate);
+        }
     }
 }
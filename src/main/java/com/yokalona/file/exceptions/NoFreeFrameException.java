@@ -0,0 +1,7 @@
+package com.yokalona.file.exceptions;
+
+public class NoFreeFrameException extends RuntimeException {
+    public NoFreeFrameException(int frames) {
+        super("All %d frames of the buffer pool are pinned".formatted(frames));
+    }
+}
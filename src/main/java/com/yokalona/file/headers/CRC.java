@@ -2,13 +2,26 @@ package com.yokalona.file.headers;
 
 import com.yokalona.array.serializers.primitives.LongSerializer;
 import com.yokalona.file.exceptions.CRCMismatchException;
+import com.yokalona.jfr.CRCEvent;
 
 import static com.yokalona.file.headers.CRC64Jones.calculate;
 
 public class CRC implements Header {
 
+    private final boolean verify;
     private int offset;
 
+    public CRC() {
+        this(true);
+    }
+
+    /**
+     * @param verify whether the checksum is verified on read, it is not for a page, that was verified already
+     */
+    public CRC(boolean verify) {
+        this.verify = verify;
+    }
+
     @Override
     public void
     offset(int offset) {
@@ -24,15 +37,31 @@ public class CRC implements Header {
     @Override
     public void
     write(byte[] page, int offset) {
+        CRCEvent event = new CRCEvent();
+        event.begin();
         long crc = calculate(page, this.offset, page.length);
         LongSerializer.INSTANCE.serializeCompact(crc, page, offset);
+        commit(event, false, false, page.length - this.offset);
     }
 
     @Override
     public void
     read(byte[] page, int offset) {
+        if (!verify) return;
+        CRCEvent event = new CRCEvent();
+        event.begin();
         long expected = calculate(page, this.offset, page.length);
         long actual = LongSerializer.INSTANCE.deserializeCompact(page, offset);
+        commit(event, true, expected != actual, page.length - this.offset);
         if (expected != actual) throw new CRCMismatchException();
     }
+
+    private static void
+    commit(CRCEvent event, boolean verification, boolean mismatch, int bytes) {
+        if (!event.shouldCommit()) return;
+        event.verification = verification;
+        event.mismatch = mismatch;
+        event.bytes = bytes;
+        event.commit();
+    }
 }
@@ -11,6 +11,7 @@ import com.yokalona.file.headers.Fixed;
 import com.yokalona.file.headers.Header;
 
 import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class FSPage<Type> implements Iterable<Type>, ArrayPage<Type> {
 
@@ -20,6 +21,7 @@ public class FSPage<Type> implements Iterable<Type>, ArrayPage<Type> {
 
     private int size;
     private final Header[] headers;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
     private final Configuration configuration;
     private final FixedSizeSerializer<Type> serializer;
 
@@ -35,112 +37,177 @@ public class FSPage<Type> implements Iterable<Type>, ArrayPage<Type> {
     }
 
     @Override
-    public synchronized Type
+    public Type
     get(int index) {
-        if (outbound(index)) throw new ReadOverflowException(size, index);
-        int offset = offset(index);
-        return deserialize(offset);
+        lock.readLock().lock();
+        try {
+            if (outbound(index)) throw new ReadOverflowException(size, index);
+            int offset = offset(index);
+            return deserialize(offset);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     @Override
     @SuppressWarnings("unchecked")
-    public synchronized Array<Type>
+    public Array<Type>
     read(Class<Type> type) {
-        Type[] array = (Type[]) java.lang.reflect.Array.newInstance(type, size);
-        for (int i = 0; i < size; ++i) array[i] = this.get(i);
-        return new Array.Indexed<>(array);
+        lock.readLock().lock();
+        try {
+            Type[] array = (Type[]) java.lang.reflect.Array.newInstance(type, size);
+            for (int i = 0; i < size; ++i) array[i] = this.get(i);
+            return new Array.Indexed<>(array);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     @Override
-    public synchronized void
+    public void
     set(int index, Type value) {
-        if (outbound(index)) throw new WriteOverflowException(size, index);
-        int offset = offset(index);
-        serialize(value, offset);
+        lock.writeLock().lock();
+        try {
+            if (outbound(index)) throw new WriteOverflowException(size, index);
+            int offset = offset(index);
+            serialize(value, offset);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     @Override
-    public synchronized void
+    public void
     insert(int index, Type value) {
-        if (0 > index || index > size || spills()) throw new WriteOverflowException(size, index);
-        int offset = offset(index);
-        System.arraycopy(configuration.page, offset, configuration.page, offset(index + 1), (size - index) * serializer.sizeOf());
-        serialize(value, offset);
-        serializeSize(++size);
+        lock.writeLock().lock();
+        try {
+            if (0 > index || index > size || spills()) throw new WriteOverflowException(size, index);
+            int offset = offset(index);
+            System.arraycopy(configuration.page, offset, configuration.page, offset(index + 1), (size - index) * serializer.sizeOf());
+            serialize(value, offset);
+            serializeSize(++size);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     @Override
-    public synchronized int
+    public int
     append(Type value) {
-        if (spills()) throw new WriteOverflowException(free());
-        int offset = offset(size);
-        serialize(value, offset);
-        return serializeSize(++size);
+        lock.writeLock().lock();
+        try {
+            if (spills()) throw new WriteOverflowException(free());
+            int offset = offset(size);
+            serialize(value, offset);
+            return serializeSize(++size);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     @Override
-    public synchronized void
+    public void
     swap(int left, int right) {
-        if (outbound(left)) throw new WriteOverflowException(size, left);
-        if (outbound(right)) throw new WriteOverflowException(size, right);
-        Type temp = get(left);
-        set(left, get(right));
-        set(right, temp);
+        lock.writeLock().lock();
+        try {
+            if (outbound(left)) throw new WriteOverflowException(size, left);
+            if (outbound(right)) throw new WriteOverflowException(size, right);
+            Type temp = get(left);
+            set(left, get(right));
+            set(right, temp);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     @Override
-    public synchronized int
+    public int
     find(Type value, Comparator<Type> comparator) {
-        int left = 0, right = size - 1;
-        while (left <= right) {
-            int mid = left + (right - left) / 2;
-            int compare = comparator.compare(get(mid), value);
-            if (compare > 0) right = mid - 1;
-            else if (compare < 0) left = mid + 1;
-            else return mid;
+        lock.readLock().lock();
+        try {
+            int left = 0, right = size - 1;
+            while (left <= right) {
+                int mid = left + (right - left) / 2;
+                int compare = comparator.compare(get(mid), value);
+                if (compare > 0) right = mid - 1;
+                else if (compare < 0) left = mid + 1;
+                else return mid;
+            }
+            return -(left + 1);
+        } finally {
+            lock.readLock().unlock();
         }
-        return -(left + 1);
     }
 
     @Override
-    public synchronized int
+    public int
     remove(int index) {
-        if (outbound(index)) throw new WriteOverflowException(size, index);
-        System.arraycopy(configuration.page, offset(index + 1), configuration.page, offset(index), (size - index - 1) * serializer.sizeOf());
-        return serializeSize(--size);
+        lock.writeLock().lock();
+        try {
+            if (outbound(index)) throw new WriteOverflowException(size, index);
+            System.arraycopy(configuration.page, offset(index + 1), configuration.page, offset(index), (size - index - 1) * serializer.sizeOf());
+            return serializeSize(--size);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
-    public synchronized void
+    public void
     clear() {
-        serializeSize(this.size = 0);
+        lock.writeLock().lock();
+        try {
+            serializeSize(this.size = 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     @Override
-    public synchronized Type
+    public Type
     first() {
-        if (outbound(0)) throw new ReadOverflowException(size, 0);
-        int offset = offset(0);
-        return deserialize(offset);
+        lock.readLock().lock();
+        try {
+            if (outbound(0)) throw new ReadOverflowException(size, 0);
+            int offset = offset(0);
+            return deserialize(offset);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     @Override
-    public synchronized Type
+    public Type
     last() {
-        if (outbound(size - 1)) throw new ReadOverflowException(size, size - 1);
-        int offset = offset(size - 1);
-        return deserialize(offset);
+        lock.readLock().lock();
+        try {
+            if (outbound(size - 1)) throw new ReadOverflowException(size, size - 1);
+            int offset = offset(size - 1);
+            return deserialize(offset);
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     @Override
     public int
     size() {
-        return size;
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     @Override
-    public synchronized int
+    public int
     free() {
-        return configuration.length - occupied();
+        lock.readLock().lock();
+        try {
+            return configuration.length - occupied();
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     @Override
@@ -152,7 +219,12 @@ public class FSPage<Type> implements Iterable<Type>, ArrayPage<Type> {
     @Override
     public int
     occupied() {
-        return (offset(0) - configuration.offset) + size * serializer.sizeOf();
+        lock.readLock().lock();
+        try {
+            return (offset(0) - configuration.offset) + size * serializer.sizeOf();
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     private Type
@@ -8,6 +8,7 @@ import com.yokalona.file.Pointer;
 import com.yokalona.file.exceptions.NoFreeSpaceLeftException;
 import com.yokalona.file.exceptions.WriteOverflowException;
 import com.yokalona.file.serializers.PointerSerializer;
+import com.yokalona.jfr.DefragmentationEvent;
 
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -140,6 +141,8 @@ public class MASpace {
     @SpawnSubprocess
     public void
     defragmentation() {
+        DefragmentationEvent event = new DefragmentationEvent();
+        event.begin();
         Array<Pointer> pointers = this.pointers.read(Pointer.class);
         if (pointers.length() == 0) throw new NoFreeSpaceLeftException();
         LinkedList<Pointer> merged = new LinkedList<>();
@@ -162,6 +165,13 @@ public class MASpace {
                 if (delta > 0) this.free += delta;
             } else this.free += p.length();
         }
+        if (event.shouldCommit()) {
+            event.space = "MASpace";
+            event.before = pointers.length();
+            event.after = merged.size();
+            event.free = this.free;
+            event.commit();
+        }
     }
 
     public int
@@ -246,7 +256,7 @@ public class MASpace {
         maspace(int dataheader) {
             int start = offset + length + dataheader;
             ArrayPage<Pointer> page = FSPage.Configurer.create(this.page, offset + Integer.BYTES)
-                    .length(length)
+                    .length(length - Integer.BYTES)
                     .fspage(PointerSerializer.forSpace(space));
             page.append(new Pointer(start, space));
             write(start, this.page, offset);
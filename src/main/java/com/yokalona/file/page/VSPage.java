@@ -10,6 +10,7 @@ import com.yokalona.array.serializers.VariableSizeSerializer;
 import com.yokalona.file.headers.CRC;
 import com.yokalona.file.headers.Fixed;
 import com.yokalona.file.headers.Header;
+import com.yokalona.jfr.DefragmentationEvent;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -26,13 +27,13 @@ public class VSPage<Type> implements Page<Type> {
     private final Header[] headers;
 
     private VSPage(VariableSizeSerializer<Type> serializer, DataSpace<Type> dataSpace,
-                   MASpace availabilitySpace, Configuration configuration, Header[] headers) {
+                   MASpace availabilitySpace, Configuration configuration, Header[] headers, boolean written) {
         this.headers = headers;
         this.serializer = serializer;
         this.configuration = configuration;
         this.availabilitySpace = availabilitySpace;
         this.dataSpace = new CachedDataSpace<>(dataSpace);
-        Header.writeHeaders(this.headers, configuration.page, configuration.offset);
+        if (!written) Header.writeHeaders(this.headers, configuration.page, configuration.offset);
     }
 
     @Override
@@ -101,9 +102,9 @@ public class VSPage<Type> implements Page<Type> {
 
     @Override
     public void flush() {
-        Header.writeHeaders(this.headers, configuration.page, configuration.offset);
         availabilitySpace.flush();
         dataSpace.flush();
+        Header.writeHeaders(this.headers, configuration.page, configuration.offset);
     }
 
     @Override
@@ -137,11 +138,21 @@ public class VSPage<Type> implements Page<Type> {
 
     public void
     defragmentation(Class<Type> type) {
+        DefragmentationEvent event = new DefragmentationEvent();
+        event.begin();
+        int fragments = availabilitySpace.fragments();
         Array<Type> array = dataSpace.read(type);
         dataSpace.clear();
         int max = availabilitySpace.maxAddress();
         for (Type data : array) dataSpace.insert(max -= serializer.sizeOf(data), data);
         availabilitySpace.freeImmediately(max);
+        if (event.shouldCommit()) {
+            event.space = "VSPage";
+            event.before = fragments;
+            event.after = availabilitySpace.fragments();
+            event.free = availabilitySpace.available();
+            event.commit();
+        }
     }
 
     @Override
@@ -169,6 +180,7 @@ public class VSPage<Type> implements Page<Type> {
         private final int offset;
         private final byte[] page;
         private int availabilitySpace;
+        private boolean verify = true;
         private final List<Header> headers = new ArrayList<>();
 
         private Configurer(byte[] page, int offset, int addressSpace) {
@@ -227,12 +239,21 @@ public class VSPage<Type> implements Page<Type> {
             return this;
         }
 
+        /**
+         * Skips verification of the checksum on {@link #read}, the page must have been verified already.
+         */
+        public Configurer
+        verified() {
+            this.verify = false;
+            return this;
+        }
+
         public <Type> VSPage<Type>
         read(VariableSizeSerializer<Type> serializer, Header... headers) {
             Fixed<Long> headline = new Fixed<>(new CompactLongSerializer(Long.BYTES));
             Fixed<Integer> availabilitySpace = new Fixed<>(new CompactIntegerSerializer(Integer.BYTES));
             Fixed<Integer> dataSpace = new Fixed<>(new CompactIntegerSerializer(Integer.BYTES));
-            CRC crc = new CRC();
+            CRC crc = new CRC(verify);
 
             Header[] required = {headline, availabilitySpace, dataSpace, crc};
 
@@ -245,7 +266,7 @@ public class VSPage<Type> implements Page<Type> {
             DataSpace<Type> data = new CachedDataSpace<>(IndexedDataSpace.read(serializer, dataSpace.value(), page, offset + availabilitySpace.value() + headerOffset));
 
             return new VSPage<>(serializer, data, availability,
-                    new Configuration(page, offset, availabilitySpace.value(), dataSpace.value()), read);
+                    new Configuration(page, offset, availabilitySpace.value(), dataSpace.value()), read, true);
         }
 
         public <Type> VSPage<Type>
@@ -275,7 +296,7 @@ public class VSPage<Type> implements Page<Type> {
                     .length(availabilitySpace)
                     .addressSpace(page.length)
                     .maspace(dataspace.occupied());
-            return new VSPage<>(serializer, dataspace, maspace, new Configuration(page, offset, availabilitySpace, dataSpace), join);
+            return new VSPage<>(serializer, dataspace, maspace, new Configuration(page, offset, availabilitySpace, dataSpace), join, false);
         }
 
     }
@@ -0,0 +1,95 @@
+package com.yokalona.file.serializers;
+
+import com.yokalona.array.serializers.VariableSizeSerializer;
+import com.yokalona.array.serializers.primitives.IntegerSerializer;
+import com.yokalona.array.serializers.primitives.LongSerializer;
+import com.yokalona.file.Envelope;
+
+/**
+ * Serializes an {@link Envelope} as a byte of its state followed by either the value or the target. External values
+ * are flagged by the high bit of the state and are followed by the address and the length of their extent. Values take
+ * at least as much space as a forward, so a record can always be replaced by a forward in place.
+ */
+public class EnvelopeSerializer<Type> implements VariableSizeSerializer<Envelope<Type>> {
+
+    private static final Envelope.State[] STATES = Envelope.State.values();
+    private static final int FORWARD = 1 + Long.BYTES;
+    private static final int EXTERNAL = FORWARD + Integer.BYTES;
+    private static final int FLAG = 0x80;
+
+    private final VariableSizeSerializer<Type> serializer;
+
+    public EnvelopeSerializer(VariableSizeSerializer<Type> serializer) {
+        this.serializer = serializer;
+    }
+
+    @Override
+    public byte[]
+    serialize(Envelope<Type> envelope) {
+        byte[] buffer = new byte[sizeOf(envelope)];
+        serialize(envelope, buffer, 0);
+        return buffer;
+    }
+
+    @Override
+    public int
+    serialize(Envelope<Type> envelope, byte[] data, int offset) {
+        data[offset] = (byte) (envelope.state().ordinal() | (envelope.external() ? FLAG : 0));
+        if (envelope.external()) {
+            LongSerializer.INSTANCE.serializeCompact(envelope.target(), data, offset + 1);
+            IntegerSerializer.INSTANCE.serializeCompact(envelope.length(), data, offset + FORWARD);
+            return EXTERNAL;
+        }
+        switch (envelope.state()) {
+            case LIVE, RELOCATED -> serializer.serialize(envelope.value(), data, offset + 1);
+            case FORWARD -> LongSerializer.INSTANCE.serializeCompact(envelope.target(), data, offset + 1);
+            case TOMBSTONE -> {
+            }
+        }
+        return sizeOf(envelope);
+    }
+
+    @Override
+    public Envelope<Type>
+    deserialize(byte[] bytes, int offset) {
+        Envelope.State state = STATES[bytes[offset] & FLAG - 1];
+        if ((bytes[offset] & FLAG) != 0) return Envelope.external(state,
+                LongSerializer.INSTANCE.deserializeCompact(bytes, offset + 1),
+                IntegerSerializer.INSTANCE.deserializeCompact(bytes, offset + FORWARD));
+        return switch (state) {
+            case LIVE, RELOCATED -> new Envelope<>(state, serializer.deserialize(bytes, offset + 1), 0L, 0);
+            case FORWARD -> Envelope.forward(LongSerializer.INSTANCE.deserializeCompact(bytes, offset + 1));
+            case TOMBSTONE -> Envelope.tombstone();
+        };
+    }
+
+    @Override
+    public int
+    sizeOf(Envelope<Type> envelope) {
+        if (envelope.external()) return EXTERNAL;
+        return switch (envelope.state()) {
+            case LIVE, RELOCATED -> inline(envelope.value());
+            case FORWARD -> FORWARD;
+            case TOMBSTONE -> 1;
+        };
+    }
+
+    /**
+     * @return size of the value within an inline envelope
+     */
+    public int
+    inline(Type value) {
+        return Math.max(FORWARD, 1 + serializer.sizeOf(value));
+    }
+
+    public VariableSizeSerializer<Type>
+    serializer() {
+        return serializer;
+    }
+
+    @Override
+    public int
+    sizeOf(byte[] data, int offset) {
+        return sizeOf(deserialize(data, offset));
+    }
+}
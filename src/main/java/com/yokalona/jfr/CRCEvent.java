@@ -0,0 +1,26 @@
+package com.yokalona.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.yokalona.CRC")
+@Label("CRC")
+@Category({"Yokabase", "Page"})
+@Description("Computation of a page checksum on write or its verification on read")
+@StackTrace(false)
+public final class CRCEvent extends jdk.jfr.Event {
+
+    @Label("Verification")
+    public boolean verification;
+
+    @Label("Mismatch")
+    public boolean mismatch;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,19 @@
+package com.yokalona.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.yokalona.CacheMiss")
+@Label("Cache Miss")
+@Category({"Yokabase", "Array"})
+@Description("Record of a persistent array, that was not in memory, when requested")
+public final class CacheMissEvent extends jdk.jfr.Event {
+
+    @Label("File")
+    public String file;
+
+    @Label("Index")
+    public int index;
+}
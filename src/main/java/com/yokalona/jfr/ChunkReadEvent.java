@@ -0,0 +1,31 @@
+package com.yokalona.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.yokalona.ChunkRead")
+@Label("Chunk Read")
+@Category({"Yokabase", "Array"})
+@Description("Load of a read chunk of a persistent array")
+@StackTrace(false)
+public final class ChunkReadEvent extends jdk.jfr.Event {
+
+    @Label("File")
+    public String file;
+
+    @Label("Index")
+    @Description("Index of the first requested record")
+    public int index;
+
+    @Label("Records")
+    @Description("Number of records actually read")
+    public int records;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,30 @@
+package com.yokalona.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.yokalona.ChunkWrite")
+@Label("Chunk Write")
+@Category({"Yokabase", "Array"})
+@Description("Flush of a write chunk or a single record of a persistent array, including syncing, if any")
+@StackTrace(false)
+public final class ChunkWriteEvent extends jdk.jfr.Event {
+
+    @Label("File")
+    public String file;
+
+    @Label("Index")
+    @Description("Index of the first written record")
+    public int index;
+
+    @Label("Records")
+    public int records;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,29 @@
+package com.yokalona.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.yokalona.Defragmentation")
+@Label("Defragmentation")
+@Category({"Yokabase", "Page"})
+@Description("Compaction of a page data space or merge of free fragments of an availability space")
+public final class DefragmentationEvent extends jdk.jfr.Event {
+
+    @Label("Space")
+    public String space;
+
+    @Label("Before")
+    @Description("Number of free fragments before defragmentation")
+    public int before;
+
+    @Label("After")
+    @Description("Number of free fragments after defragmentation")
+    public int after;
+
+    @Label("Free")
+    @DataAmount
+    public long free;
+}
@@ -0,0 +1,21 @@
+package com.yokalona.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.yokalona.PageRead")
+@Label("Page Read")
+@Category({"Yokabase", "File"})
+@StackTrace(false)
+public final class PageReadEvent extends jdk.jfr.Event {
+
+    @Label("Address")
+    public long address;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,21 @@
+package com.yokalona.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.yokalona.PageWrite")
+@Label("Page Write")
+@Category({"Yokabase", "File"})
+@StackTrace(false)
+public final class PageWriteEvent extends jdk.jfr.Event {
+
+    @Label("Address")
+    public long address;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
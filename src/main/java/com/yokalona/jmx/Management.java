@@ -0,0 +1,51 @@
+package com.yokalona.jmx;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registers beans of open storage structures in the platform MBean server under
+ * {@code com.yokalona:type=<type>,file=<absolute path>}. Once the name is taken by another open structure of the same
+ * file, the bean is registered under {@code com.yokalona:type=<type>,file=<absolute path>,instance=<number>}.
+ */
+public final class Management {
+
+    private static final String DOMAIN = "com.yokalona";
+    private static final AtomicLong INSTANCES = new AtomicLong();
+
+    private Management() {
+    }
+
+    public static ObjectName
+    register(Object bean, String type, Path file) {
+        String prefix = DOMAIN + ":type=" + type + ",file=" + ObjectName.quote(file.toAbsolutePath().toString());
+        try {
+            ObjectName name = new ObjectName(prefix);
+            while (true) {
+                try {
+                    ManagementFactory.getPlatformMBeanServer().registerMBean(bean, name);
+                    return name;
+                } catch (InstanceAlreadyExistsException taken) {
+                    name = new ObjectName(prefix + ",instance=" + INSTANCES.incrementAndGet());
+                }
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("during " + file + " bean registration", e);
+        }
+    }
+
+    public static void
+    unregister(ObjectName name) {
+        if (name == null) return;
+        try {
+            if (ManagementFactory.getPlatformMBeanServer().isRegistered(name))
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (JMException e) {
+            throw new IllegalStateException("during " + name + " bean unregistration", e);
+        }
+    }
+}
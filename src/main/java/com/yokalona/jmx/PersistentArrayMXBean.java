@@ -0,0 +1,45 @@
+package com.yokalona.jmx;
+
+/**
+ * Live statistics of an open {@link com.yokalona.array.PersistentArray}. Statistics are updated by the thread, that
+ * owns the array, without any synchronization, so they are approximate. Resize operations are not applied
+ * immediately, they are applied by the owning thread on its next access to the array.
+ */
+public interface PersistentArrayMXBean {
+
+    String getFile();
+
+    int getLength();
+
+    long getHits();
+
+    long getMisses();
+
+    double getHitRatio();
+
+    int getResidentRecords();
+
+    int getDirtyRecords();
+
+    long getBytesRead();
+
+    long getBytesWritten();
+
+    long getFlushes();
+
+    long getFlushLatencyP50();
+
+    long getFlushLatencyP99();
+
+    int getReadChunkSize();
+
+    int getWriteChunkSize();
+
+    int getMemoryChunkSize();
+
+    void resizeReadChunk(int size);
+
+    void resizeWriteChunk(int size);
+
+    void resizeMemoryChunk(int size);
+}
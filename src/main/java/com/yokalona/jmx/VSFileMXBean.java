@@ -0,0 +1,21 @@
+package com.yokalona.jmx;
+
+/**
+ * Live statistics of an open {@link com.yokalona.file.VSFile}, statistics are approximate.
+ */
+public interface VSFileMXBean {
+
+    String getFile();
+
+    int getPages();
+
+    long getRecords();
+
+    long getPageReads();
+
+    long getPageWrites();
+
+    long getBytesRead();
+
+    long getBytesWritten();
+}
@@ -1,13 +1,14 @@
 package com.yokalona.array;
 
 import com.yokalona.array.io.CachedFile;
+import com.yokalona.array.io.FileStorage;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
-import java.io.RandomAccessFile;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
+import static com.yokalona.array.configuration.File.Mode.RW;
 import static com.yokalona.array.configuration.File.file;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -17,13 +18,13 @@ class CachedFileTest {
     public void
     testWriteIsInTheSameIfCached() throws IOException {
         Path path = Files.createTempDirectory("cachedfile");
-        RandomAccessFile rw = new RandomAccessFile(path.resolve("write.tst").toFile(), "rw");
+        FileStorage rw = new FileStorage(path.resolve("write.tst"), RW);
         try(CachedFile cachedFile = new CachedFile(file(path.resolve("write.tst")).cached(), rw)) {
             assertEquals(rw, cachedFile.get());
             assertEquals(rw, cachedFile.get());
             assertEquals(rw, cachedFile.peek());
         }
-        assertTrue(rw.getChannel().isOpen());
+        assertDoesNotThrow(rw::size);
         rw.close();
     }
 
@@ -31,7 +32,7 @@ class CachedFileTest {
     public void
     testWriteIsNotInTheSameIfCached() throws IOException {
         Path path = Files.createTempDirectory("cachedfile");
-        RandomAccessFile rw = new RandomAccessFile(path.resolve("write.tst").toFile(), "rw");
+        FileStorage rw = new FileStorage(path.resolve("write.tst"), RW);
         try(CachedFile cachedFile = new CachedFile(file(path.resolve("write.tst")).uncached(), rw)) {
             assertNotEquals(rw, cachedFile.get());
             cachedFile.peek().close();
@@ -40,7 +41,7 @@ class CachedFileTest {
             assertNotEquals(rw, cachedFile.peek());
             cachedFile.peek().close();
         }
-        assertTrue(rw.getChannel().isOpen());
+        assertDoesNotThrow(rw::size);
         rw.close();
     }
 
@@ -0,0 +1,113 @@
+package com.yokalona.array;
+
+import com.yokalona.array.io.AlignedBufferPool;
+import com.yokalona.array.io.DirectStorage;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.yokalona.array.configuration.File.Mode.RW;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectStorageTest {
+
+    @Test
+    public void
+    testUnalignedWritesAndReads() throws IOException {
+        Path path = Files.createTempDirectory("directstorage").resolve("unaligned.tst");
+        Random random = new Random(42);
+        byte[] expected = new byte[0];
+        try (DirectStorage storage = new DirectStorage(path, RW)) {
+            int span = AlignedBufferPool.of(storage.block()).size();
+            for (int round = 0; round < 200; round++) {
+                int position = random.nextInt(3 * storage.block());
+                byte[] data = new byte[1 + random.nextInt(round % 10 == 0 ? 2 * span : 2 * storage.block())];
+                random.nextBytes(data);
+                storage.write(position, data);
+                if (expected.length < position + data.length) expected = Arrays.copyOf(expected, position + data.length);
+                System.arraycopy(data, 0, expected, position, data.length);
+                assertEquals(expected.length, storage.size());
+
+                int from = random.nextInt(expected.length);
+                byte[] read = new byte[expected.length - from];
+                storage.readFully(from, read, 0, read.length);
+                assertArrayEquals(Arrays.copyOfRange(expected, from, expected.length), read);
+            }
+            assertEquals(-1, storage.read(expected.length, new byte[1], 0, 1));
+        }
+        assertArrayEquals(expected, Files.readAllBytes(path));
+        Files.delete(path);
+    }
+
+    @Test
+    public void
+    testPartialBlockWritesKeepNeighbours() throws IOException {
+        Path path = Files.createTempDirectory("directstorage").resolve("partial.tst");
+        try (DirectStorage storage = new DirectStorage(path, RW)) {
+            int block = storage.block();
+            byte[] expected = new byte[3 * block];
+            Arrays.fill(expected, (byte) 7);
+            storage.write(0, expected);
+
+            byte[] head = {1, 2, 3};
+            storage.write(block - 1, head);
+            System.arraycopy(head, 0, expected, block - 1, head.length);
+            byte[] inner = new byte[block / 2];
+            Arrays.fill(inner, (byte) 9);
+            storage.write(2 * block + block / 4, inner);
+            System.arraycopy(inner, 0, expected, 2 * block + block / 4, inner.length);
+
+            byte[] read = new byte[expected.length];
+            storage.readFully(0, read, 0, read.length);
+            assertArrayEquals(expected, read);
+
+            byte[] tail = new byte[block];
+            assertEquals(block / 2, storage.read(expected.length - block / 2, tail, 0, tail.length));
+            assertArrayEquals(Arrays.copyOfRange(expected, expected.length - block / 2, expected.length), Arrays.copyOf(tail, block / 2));
+        }
+        Files.delete(path);
+    }
+
+    @Test
+    public void
+    testFileKeepsExactLength() throws IOException {
+        Path path = Files.createTempDirectory("directstorage").resolve("length.tst");
+        try (DirectStorage storage = new DirectStorage(path, RW)) {
+            int block = storage.block();
+            storage.write(block + 3, new byte[]{1, 2});
+            assertEquals(block + 5, storage.size());
+            assertEquals(block + 5, Files.size(path));
+            storage.write(1, new byte[]{3});
+            assertEquals(block + 5, storage.size());
+            storage.truncate(block - 1);
+            assertEquals(block - 1, storage.size());
+            storage.write(block - 2, new byte[]{4, 5, 6});
+            assertEquals(block + 1, Files.size(path));
+            byte[] read = new byte[4];
+            storage.readFully(block - 3, read, 0, read.length);
+            assertArrayEquals(new byte[]{0, 4, 5, 6}, read);
+        }
+        Files.delete(path);
+    }
+
+    @Test
+    public void
+    testBuffersAreAligned() {
+        AlignedBufferPool pool = AlignedBufferPool.of(4096);
+        ByteBuffer buffer = pool.acquire();
+        try {
+            assertTrue(buffer.isDirect());
+            assertEquals(0, buffer.alignmentOffset(0, pool.alignment()));
+            assertEquals(0, buffer.capacity() % pool.alignment());
+            assertEquals(pool.size(), buffer.capacity());
+        } finally {
+            pool.release(buffer);
+        }
+        assertSame(pool, AlignedBufferPool.of(4096));
+    }
+}
@@ -1,6 +1,7 @@
 package com.yokalona.array;
 
 import com.yokalona.array.configuration.Configuration;
+import com.yokalona.array.configuration.File.Backend;
 import com.yokalona.array.debug.CompactInteger;
 import com.yokalona.array.exceptions.FileMarkedForDeletingException;
 import com.yokalona.array.exceptions.HeaderMismatchException;
@@ -9,21 +10,50 @@ import com.yokalona.array.io.FixedObjectLayout;
 import com.yokalona.array.serializers.primitives.IntegerSerializer;
 import com.yokalona.array.subscriber.CountingSubscriber;
 import com.yokalona.array.subscriber.CountingSubscriber.Counter;
+import com.yokalona.array.subscriber.Event;
+import com.yokalona.array.subscriber.LatencySubscriber;
+import com.yokalona.array.subscriber.Operation;
+import com.yokalona.array.subscriber.Subscriber;
+import com.yokalona.jmx.PersistentArrayMXBean;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.lang.management.ManagementFactory;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import static com.yokalona.array.configuration.Chunked.chunked;
 import static com.yokalona.array.configuration.Chunked.linear;
+import static com.yokalona.array.configuration.Dispatch.asynchronous;
 import static com.yokalona.array.configuration.ChunkedRead.read;
 import static com.yokalona.array.configuration.ChunkedWrite.write;
+import static com.yokalona.array.configuration.Durability.flush;
+import static com.yokalona.array.configuration.Durability.group;
 import static com.yokalona.array.configuration.File.file;
+import static com.yokalona.array.configuration.Journal.journaled;
+import static com.yokalona.array.configuration.Warmup.warm;
+import static com.yokalona.array.configuration.Zoned.zoned;
 import static com.yokalona.array.configuration.Configuration.configure;
 import static com.yokalona.array.debug.CompactInteger.compact;
 import static org.junit.jupiter.api.Assertions.*;
@@ -166,6 +196,231 @@ public class PersistentArrayTest {
         assertEquals(10, subscriber.get(Counter.DESERIALIZATIONS));
     }
 
+    @Test
+    public void
+    testAsynchronousEventsAreSent() throws IOException {
+        Path filePath = path.resolve("testAsynchronousEventsAreSent.la");
+        CountingSubscriber subscriber = new CountingSubscriber();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (var array = new PersistentArray<>(100, CompactInteger.serializer, FixedObjectLayout::new,
+                configure(file(filePath).cached())
+                        .memory(chunked(10))
+                        .executor(executor)
+                        .dispatch(asynchronous(4))
+                        .addSubscriber(subscriber)
+                        .read(read().chunked(10))
+                        .write(write().chunked(10)))) {
+            for (int i = 0; i < array.length(); i++) array.set(i, compact(i + 10));
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(10, subscriber.get(Counter.CHUNK_SERIALIZATIONS));
+        assertEquals(100, subscriber.get(Counter.SERIALIZATIONS));
+    }
+
+    @Test
+    public void
+    testUninterestedSubscriberIsNotCalled() throws IOException {
+        Path filePath = path.resolve("testUninterestedSubscriberIsNotCalled.la");
+        Subscriber subscriber = new Subscriber() {
+            @Override
+            public Set<Event>
+            interests() {
+                return EnumSet.of(Event.FILE_CREATED);
+            }
+
+            @Override
+            public void
+            onSerialized(int index) {
+                fail();
+            }
+        };
+        try (var array = new PersistentArray<>(10, CompactInteger.serializer, FixedObjectLayout::new,
+                configure(file(filePath).cached())
+                        .memory(chunked(10))
+                        .addSubscriber(subscriber)
+                        .read(read().chunked(10))
+                        .write(write().chunked(10)))) {
+            for (int i = 0; i < array.length(); i++) array.set(i, compact(i + 10));
+        }
+    }
+
+    @Test
+    public void
+    testLatencyIsRecorded() throws IOException {
+        Path filePath = path.resolve("testLatencyIsRecorded.la");
+        LatencySubscriber subscriber = new LatencySubscriber();
+        Configuration configuration = configure(file(filePath).cached())
+                .memory(chunked(10))
+                .addSubscriber(subscriber)
+                .read(read().chunked(5))
+                .write(write().chunked(10));
+        try (var array = new PersistentArray<>(20, CompactInteger.serializer, FixedObjectLayout::new, configuration)) {
+            for (int i = 0; i < array.length(); i++) array.set(i, compact(i + 10));
+        }
+        assertEquals(2, subscriber.histogram(Operation.CHUNK_WRITE).count());
+        try (var array = PersistentArray.deserialize(CompactInteger.serializer, configuration)) {
+            for (int i = 0; i < array.length(); i++) assertEquals(i + 10, array.get(i).value());
+        }
+        assertEquals(4, subscriber.histogram(Operation.CHUNK_READ).count());
+        assertEquals(0, subscriber.histogram(Operation.WRITE).count());
+        assertTrue(subscriber.percentile(Operation.CHUNK_READ, 50) > 0);
+    }
+
+    @Test
+    public void
+    testManagedArray() throws Exception {
+        Path filePath = path.resolve("testManagedArray.la");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("com.yokalona:type=PersistentArray,file="
+                + ObjectName.quote(filePath.toAbsolutePath().toString()));
+        try (var array = new PersistentArray<>(20, CompactInteger.serializer, FixedObjectLayout::new,
+                configure(file(filePath).cached())
+                        .memory(chunked(10))
+                        .managed(true)
+                        .read(read().chunked(10))
+                        .write(write().chunked(10)))) {
+            PersistentArrayMXBean bean = JMX.newMXBeanProxy(server, name, PersistentArrayMXBean.class);
+            for (int i = 0; i < array.length(); i++) array.set(i, compact(i));
+            assertEquals(2, bean.getFlushes());
+            assertEquals(0, bean.getDirtyRecords());
+            array.set(0, compact(0));
+            assertEquals(1, bean.getDirtyRecords());
+            assertEquals(0, array.get(0).value());
+            assertEquals(1, bean.getHits());
+            bean.resizeMemoryChunk(20);
+            bean.resizeReadChunk(20);
+            assertEquals(10, bean.getReadChunkSize());
+            for (int i = 0; i < array.length(); i++) assertEquals(i, array.get(i).value());
+            assertEquals(20, bean.getReadChunkSize());
+            assertEquals(20, bean.getMemoryChunkSize());
+            assertEquals(1, bean.getMisses());
+            assertEquals(20, bean.getResidentRecords());
+            assertTrue(bean.getBytesWritten() > 0 && bean.getBytesRead() > 0);
+        }
+        assertFalse(server.isRegistered(name));
+    }
+
+    @Test
+    public void
+    testManagedArraysOfSameFile() throws Exception {
+        Path filePath = path.resolve("testManagedArraysOfSameFile.la");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName names = new ObjectName("com.yokalona:type=PersistentArray,file="
+                + ObjectName.quote(filePath.toAbsolutePath().toString()) + ",*");
+        Configuration configuration = configure(file(filePath).cached())
+                .memory(chunked(10))
+                .managed(true)
+                .read(read().chunked(10))
+                .write(write().chunked(10));
+        try (var array = new PersistentArray<>(20, CompactInteger.serializer, FixedObjectLayout::new, configuration)) {
+            for (int i = 0; i < array.length(); i++) array.set(i, compact(i));
+            array.flush();
+            try (var other = PersistentArray.deserialize(CompactInteger.serializer, configuration)) {
+                assertEquals(0, other.get(0).value());
+                assertEquals(2, server.queryNames(names, null).size());
+            }
+            assertEquals(1, server.queryNames(names, null).size());
+        }
+        assertTrue(server.queryNames(names, null).isEmpty());
+    }
+
+    @Test
+    public void
+    testWarmupAfterRestart() throws Exception {
+        Path filePath = path.resolve("testWarmupAfterRestart.la");
+        CountingSubscriber subscriber = new CountingSubscriber();
+        Configuration configuration = configure(file(filePath).cached())
+                .memory(chunked(40))
+                .warmup(warm(2))
+                .addSubscriber(subscriber)
+                .read(read().chunked(1))
+                .write(write().chunked(20));
+        try (var array = new PersistentArray<>(100, CompactInteger.serializer, FixedObjectLayout::new, configuration)) {
+            for (int i = 0; i < array.length(); i++) array.set(i, compact(i));
+            array.flush();
+            for (int i = 50; i < 60; i++) array.get(i);
+            for (int i = 70; i < 80; i += 2) array.get(i);
+        }
+        assertTrue(Files.exists(path.resolve("testWarmupAfterRestart.la.hot")));
+        try (var array = PersistentArray.deserialize(CompactInteger.serializer, configuration)) {
+            assertFalse(Files.exists(path.resolve("testWarmupAfterRestart.la.hot")));
+            while (array.warming()) Thread.sleep(1);
+            subscriber.reset();
+            for (int i = 50; i < 60; i++) assertEquals(i, array.get(i).value());
+            for (int i = 70; i < 80; i += 2) assertEquals(i, array.get(i).value());
+            assertEquals(0, subscriber.get(Counter.CACHE_MISS));
+        }
+    }
+
+    @Test
+    public void
+    testWarmupDoesNotOverrideWrites() throws Exception {
+        Path filePath = path.resolve("testWarmupDoesNotOverrideWrites.la");
+        Configuration configuration = configure(file(filePath).cached())
+                .memory(chunked(20))
+                .warmup(warm(1))
+                .read(read().chunked(1))
+                .write(write().chunked(20));
+        try (var array = new PersistentArray<>(100, CompactInteger.serializer, FixedObjectLayout::new, configuration)) {
+            for (int i = 0; i < 20; i++) array.set(i, compact(i));
+        }
+        try (var array = PersistentArray.deserialize(CompactInteger.serializer, configuration)) {
+            for (int i = 0; i < 20; i++) array.set(i, compact(-i));
+            array.resizeMemoryChunk(20);
+            while (array.warming()) Thread.sleep(1);
+            for (int i = 0; i < 20; i++) assertEquals(-i, array.get(i).value());
+        }
+    }
+
+    @Test
+    public void
+    testAsyncReadsAreCoalescedAndInstalled() throws IOException {
+        Path filePath = path.resolve("testAsyncReadsAreCoalescedAndInstalled.la");
+        CountingSubscriber subscriber = new CountingSubscriber();
+        Configuration configuration = configure(file(filePath).cached())
+                .memory(chunked(10))
+                .executor(new TestExecutor())
+                .addSubscriber(subscriber)
+                .read(read().inflight(2).chunked(10))
+                .write(write().chunked(10));
+        try (var array = new PersistentArray<>(100, CompactInteger.serializer, FixedObjectLayout::new, configuration)) {
+            for (int i = 0; i < array.length(); i++) array.set(i, compact(i));
+        }
+        try (var array = PersistentArray.deserialize(CompactInteger.serializer, configuration)) {
+            List<CompactInteger> values = array.getAllAsync(15, 12, 17, 34).join();
+            assertEquals(List.of(15, 12, 17, 34), values.stream().map(CompactInteger::value).toList());
+            long misses = subscriber.get(Counter.CACHE_MISS);
+            assertTrue(misses >= 2 && misses <= 4);
+            assertEquals(0, subscriber.get(Counter.CHUNK_DESERIALIZATIONS));
+            for (int i = 10; i < 20; i++) assertEquals(i, array.get(i).value());
+            assertEquals(misses, subscriber.get(Counter.CACHE_MISS));
+
+            array.getAsync(55).join();
+            array.set(99, compact(-99));
+            assertEquals(56, array.get(56).value());
+            assertEquals(misses + 2, subscriber.get(Counter.CACHE_MISS));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Backend.class)
+    public void
+    testAsyncReadsGoThroughBackend(Backend backend) throws IOException {
+        Path filePath = path.resolve("testAsyncReadsGoThroughBackend." + backend + ".la");
+        Configuration configuration = configure(file(filePath).backend(backend).cached())
+                .memory(chunked(10))
+                .read(read().inflight(4).chunked(10))
+                .write(write().chunked(10));
+        try (var array = new PersistentArray<>(100, CompactInteger.serializer, FixedObjectLayout::new, configuration)) {
+            for (int i = 0; i < array.length(); i++) array.set(i, compact(i));
+        }
+        try (var array = PersistentArray.deserialize(CompactInteger.serializer, configuration)) {
+            List<CompactInteger> values = array.getAllAsync(95, 3, 41, 67, 12).join();
+            assertEquals(List.of(95, 3, 41, 67, 12), values.stream().map(CompactInteger::value).toList());
+        }
+    }
+
     @Test
     public void
     testChunkSizeAffectIO() throws IOException {
@@ -482,4 +737,243 @@ public class PersistentArrayTest {
         assertThrows(FileMarkedForDeletingException.class, () -> PersistentArray.deserialize(CompactInteger.serializer, configuration).close());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void
+    testScanSkipsZones() throws IOException {
+        Path filePath = path.resolve("testScanSkipsZones.la");
+        CountingSubscriber subscriber = new CountingSubscriber();
+        Configuration configuration = configure(file(filePath).cached())
+                .memory(chunked(10))
+                .executor(new TestExecutor())
+                .addSubscriber(subscriber)
+                .zones(zoned(10, Comparator.comparingInt(CompactInteger::value)))
+                .read(read().chunked(10))
+                .write(write().chunked(10));
+        try (var array = new PersistentArray<>(100, CompactInteger.serializer, FixedObjectLayout::new, configuration)) {
+            for (int i = 0; i < array.length(); i++) array.set(i, compact(i));
+        }
+        subscriber.reset();
+        List<Integer> found = new ArrayList<>();
+        try (var array = PersistentArray.deserialize(CompactInteger.serializer, configuration)) {
+            array.scan(compact(25), compact(34), (value, index) -> found.add(index));
+        }
+        assertEquals(IntStream.rangeClosed(25, 34).boxed().toList(), found);
+        assertEquals(20, subscriber.get(Counter.DESERIALIZATIONS));
+        assertEquals(2, subscriber.get(Counter.CHUNK_DESERIALIZATIONS));
+        assertEquals(0, subscriber.get(Counter.CACHE_MISS));
+    }
+
+    @Test
+    public void
+    testScanKeepsResidentRecords() throws IOException {
+        Path filePath = path.resolve("testScanKeepsResidentRecords.la");
+        CountingSubscriber subscriber = new CountingSubscriber();
+        Configuration configuration = configure(file(filePath).cached())
+                .memory(chunked(10))
+                .addSubscriber(subscriber)
+                .zones(zoned(10, Comparator.comparingInt(CompactInteger::value)))
+                .read(read().chunked(5))
+                .write(write().chunked(10));
+        try (var array = new PersistentArray<>(100, CompactInteger.serializer, FixedObjectLayout::new, configuration)) {
+            for (int i = 0; i < array.length(); i++) array.set(i, compact(i));
+            for (int i = 90; i < 100; i++) array.get(i);
+            subscriber.reset();
+            List<Integer> found = new ArrayList<>();
+            array.scan(compact(0), compact(99), (value, index) -> found.add(index));
+            assertEquals(IntStream.range(0, 100).boxed().toList(), found);
+            assertEquals(20, subscriber.get(Counter.CHUNK_DESERIALIZATIONS));
+            for (int i = 90; i < 100; i++) assertEquals(compact(i), array.get(i));
+            assertEquals(0, subscriber.get(Counter.CACHE_MISS));
+        }
+    }
+
+    @Test
+    public void
+    testScanRequiresZones() throws IOException {
+        Path filePath = path.resolve("testScanRequiresZones.la");
+        Configuration configuration = configure(file(filePath).cached())
+                .memory(chunked(10))
+                .read(read().chunked(10))
+                .write(write().chunked(10));
+        try (var array = new PersistentArray<>(10, CompactInteger.serializer, FixedObjectLayout::new, configuration)) {
+            assertThrows(IllegalStateException.class, () -> array.scan(compact(0), compact(9), (value, index) -> {
+            }));
+        }
+    }
+
+    @Test
+    public void
+    testScanSummarizesUnboundedZones() throws IOException {
+        Path filePath = path.resolve("testScanSummarizesUnboundedZones.la");
+        CountingSubscriber subscriber = new CountingSubscriber();
+        Configuration configuration = configure(file(filePath).cached())
+                .memory(chunked(10))
+                .executor(new TestExecutor())
+                .addSubscriber(subscriber)
+                .zones(zoned(10, Comparator.comparingInt(CompactInteger::value)))
+                .read(read().chunked(10))
+                .write(write().chunked(10));
+        try (var array = new PersistentArray<>(100, CompactInteger.serializer, FixedObjectLayout::new, configuration)) {
+            for (int i = 0; i < array.length(); i++) array.set(i, compact(i));
+        }
+        Files.delete(path.resolve("testScanSummarizesUnboundedZones.la.zones"));
+        subscriber.reset();
+        try (var array = PersistentArray.deserialize(CompactInteger.serializer, configuration)) {
+            array.scan(compact(25), compact(34), (value, index) -> assertTrue(25 <= index && index <= 34));
+            assertEquals(100, subscriber.get(Counter.DESERIALIZATIONS));
+        }
+        subscriber.reset();
+        try (var array = PersistentArray.deserialize(CompactInteger.serializer, configuration)) {
+            array.scan(compact(25), compact(34), (value, index) -> assertTrue(25 <= index && index <= 34));
+            assertEquals(20, subscriber.get(Counter.DESERIALIZATIONS));
+        }
+    }
+
+    @Test
+    public void
+    testUnzonedOpenDiscardsZones() throws IOException {
+        Path filePath = path.resolve("testUnzonedOpenDiscardsZones.la");
+        Configuration unzoned = configure(file(filePath).cached())
+                .memory(chunked(10))
+                .read(read().chunked(10))
+                .write(write().chunked(10));
+        Configuration configuration = configure(file(filePath).cached())
+                .memory(chunked(10))
+                .zones(zoned(10, Comparator.comparingInt(CompactInteger::value)))
+                .read(read().chunked(10))
+                .write(write().chunked(10));
+        try (var array = new PersistentArray<>(100, CompactInteger.serializer, FixedObjectLayout::new, configuration)) {
+            for (int i = 0; i < array.length(); i++) array.set(i, compact(i));
+        }
+        assertTrue(Files.exists(path.resolve("testUnzonedOpenDiscardsZones.la.zones")));
+        try (var array = PersistentArray.deserialize(CompactInteger.serializer, unzoned)) {
+            array.set(50, compact(1_000));
+        }
+        assertFalse(Files.exists(path.resolve("testUnzonedOpenDiscardsZones.la.zones")));
+        List<Integer> found = new ArrayList<>();
+        try (var array = PersistentArray.deserialize(CompactInteger.serializer, configuration)) {
+            array.scan(compact(1_000), compact(1_000), (value, index) -> found.add(index));
+        }
+        assertEquals(List.of(50), found);
+    }
+
+    @Test
+    public void
+    testJournalRecoversTornChunk() throws IOException {
+        Path filePath = path.resolve("testJournalRecoversTornChunk.la");
+        Path logPath = path.resolve("testJournalRecoversTornChunk.la.redo");
+        Configuration configuration = configure(file(filePath).cached())
+                .memory(chunked(10))
+                .journal(journaled(1024 * 1024))
+                .read(read().chunked(10))
+                .write(write().chunked(10));
+        try (var array = new PersistentArray<>(10, CompactInteger.serializer, FixedObjectLayout::new, configuration)) {
+            for (int i = 0; i < array.length(); i++) array.set(i, compact(i + 10));
+            assertTrue(0 < Files.size(logPath));
+            try (var file = new RandomAccessFile(filePath.toFile(), "rw")) {
+                file.seek(PersistentArray.HEADER_SIZE);
+                file.write(new byte[5 * CompactInteger.serializer.sizeOf()]);
+            }
+            Files.write(logPath, new byte[]{0, 0, 0, 42, 1, 2, 3}, StandardOpenOption.APPEND);
+            try (var recovered = PersistentArray.deserialize(CompactInteger.serializer, configuration)) {
+                assertEquals(0, Files.size(logPath));
+                for (int i = 0; i < recovered.length(); i++) assertEquals(i + 10, recovered.get(i).value());
+            }
+        }
+        assertEquals(0, Files.size(logPath));
+    }
+
+    @Test
+    public void
+    testCommitCompletesOnceDurable() throws Exception {
+        Path filePath = path.resolve("testCommitCompletesOnceDurable.la");
+        Configuration configuration = configure(file(filePath).cached())
+                .memory(chunked(10))
+                .durability(group(Duration.ofMillis(5)))
+                .read(read().chunked(10))
+                .write(write().chunked(5));
+        try (var array = new PersistentArray<>(10, CompactInteger.serializer, FixedObjectLayout::new, configuration)) {
+            for (int i = 0; i < array.length(); i++) array.set(i, compact(i));
+            array.set(0, compact(10));
+            CompletableFuture<Void> committed = array.commit();
+            committed.get(10, TimeUnit.SECONDS);
+            assertTrue(committed.isDone());
+        }
+        try (var array = PersistentArray.deserialize(CompactInteger.serializer, configure(file(filePath).cached())
+                .memory(chunked(10))
+                .durability(flush())
+                .read(read().chunked(10))
+                .write(write().chunked(5)))) {
+            assertEquals(10, array.get(0).value());
+            array.set(1, compact(11));
+            assertTrue(array.commit().isDone());
+        }
+    }
+
+    @Test
+    public void
+    testJournaledFlushDoesNotWaitForGroupCommit() throws Exception {
+        Path filePath = path.resolve("testJournaledFlushDoesNotWaitForGroupCommit.la");
+        Configuration configuration = configure(file(filePath).cached())
+                .memory(chunked(10))
+                .journal(journaled(1024 * 1024))
+                .durability(group(Duration.ofSeconds(1)))
+                .read(read().chunked(10))
+                .write(write().chunked(5));
+        try (var array = new PersistentArray<>(100, CompactInteger.serializer, FixedObjectLayout::new, configuration)) {
+            long start = System.nanoTime();
+            for (int i = 0; i < 20; i++) array.set(i, compact(i + 100));
+            CompletableFuture<Void> committed = array.commit();
+            assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+            assertFalse(committed.isDone());
+            for (int i = 50; i < 60; i++) array.get(i);
+            for (int i = 0; i < 20; i++) assertEquals(i + 100, array.get(i).value());
+            committed.get(10, TimeUnit.SECONDS);
+        }
+        try (var array = PersistentArray.deserialize(CompactInteger.serializer, configuration)) {
+            for (int i = 0; i < 20; i++) assertEquals(i + 100, array.get(i).value());
+        }
+    }
+
+    @Test
+    public void
+    testSnapshotIsPointInTime() throws IOException {
+        Path filePath = path.resolve("testSnapshotIsPointInTime.la");
+        Configuration configuration = configure(file(filePath).cached())
+                .memory(chunked(10))
+                .read(read().chunked(5))
+                .write(write().chunked(5));
+        try (var array = new PersistentArray<>(20, CompactInteger.serializer, FixedObjectLayout::new, configuration)) {
+            for (int i = 0; i < array.length(); i++) array.set(i, compact(i));
+            Snapshot<CompactInteger> snapshot = array.snapshot();
+            try (snapshot) {
+                for (int i = 0; i < array.length(); i++) array.set(i, compact(i + 100));
+                array.flush();
+                for (int i = 0; i < snapshot.length(); i++) assertEquals(i, snapshot.get(i).value());
+                for (int i = 0; i < array.length(); i++) assertEquals(i + 100, array.get(i).value());
+            }
+            try (var folder = Files.list(path)) {
+                assertTrue(folder.noneMatch(file -> file.toString().endsWith(".snapshot")));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Backend.class)
+    public void
+    testBackendRoundTrip(Backend backend) throws IOException {
+        Path filePath = path.resolve("testBackendRoundTrip." + backend + ".la");
+        Configuration configuration = configure(file(filePath).backend(backend).cached())
+                .memory(chunked(10))
+                .read(read().chunked(7))
+                .write(write().chunked(3));
+        try (var array = new PersistentArray<>(1000, CompactInteger.serializer, FixedObjectLayout::new, configuration)) {
+            for (int i = 0; i < array.length(); i++) array.set(i, compact(i));
+        }
+        try (var array = PersistentArray.deserialize(CompactInteger.serializer, configuration)) {
+            for (int i = 0; i < array.length(); i++) assertEquals(i, array.get(i).value());
+        }
+        assertEquals(backend != Backend.MEMORY, Files.exists(filePath));
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.yokalona.array;
+
+import com.yokalona.array.configuration.Configuration;
+import com.yokalona.array.debug.CompactInteger;
+import com.yokalona.array.io.FixedObjectLayout;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.yokalona.array.configuration.Chunked.chunked;
+import static com.yokalona.array.configuration.ChunkedRead.read;
+import static com.yokalona.array.configuration.ChunkedWrite.write;
+import static com.yokalona.array.configuration.Configuration.configure;
+import static com.yokalona.array.configuration.File.file;
+import static com.yokalona.array.debug.CompactInteger.compact;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentedArrayTest {
+
+    private Path path;
+
+    @BeforeEach
+    public void
+    setUp() throws IOException {
+        this.path = Files.createTempDirectory("segmented");
+    }
+
+    @AfterEach
+    public void
+    tearDown() throws IOException {
+        try (var folder = Files.walk(path)) {
+            folder.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(file -> {
+                boolean ignore = file.delete();
+            });
+        }
+    }
+
+    @Test
+    public void
+    testBeyondIntegerRange() throws IOException {
+        Path directory = path.resolve("testBeyondIntegerRange.sa");
+        List<Path> roots = List.of(Files.createDirectory(path.resolve("first")), Files.createDirectory(path.resolve("second")));
+        Configuration template = configure(file(directory).cached())
+                .memory(chunked(16))
+                .read(read().chunked(16))
+                .write(write().chunked(16));
+        long length = 1L << 33;
+        long[] indices = {0, (1L << 32) + 5, length - 1};
+        try (var array = SegmentedArray.create(length, 1 << 16, directory, roots, CompactInteger.serializer,
+                FixedObjectLayout::new, template)) {
+            assertEquals(1 << 17, array.segments());
+            for (int i = 0; i < indices.length; i++) array.set(indices[i], compact(i + 10));
+            assertNull(array.get(1));
+        }
+        try (var folder = Files.list(roots.get(0)); var other = Files.list(roots.get(1))) {
+            assertEquals(indices.length, folder.count() + other.count());
+        }
+        try (var array = SegmentedArray.open(directory, CompactInteger.serializer, FixedObjectLayout::new, template)) {
+            assertEquals(length, array.length());
+            for (int i = 0; i < indices.length; i++) assertEquals(compact(i + 10), array.get(indices[i]), "" + i);
+        }
+    }
+
+    @Test
+    public void
+    testLeastRecentlyUsedSegmentsAreClosed() {
+        Path directory = path.resolve("testLeastRecentlyUsedSegmentsAreClosed.sa");
+        Configuration template = configure(file(directory).cached())
+                .memory(chunked(4))
+                .read(read().chunked(4))
+                .write(write().chunked(4));
+        int open = SegmentedArray.OPEN_SEGMENTS;
+        SegmentedArray.OPEN_SEGMENTS = 2;
+        try {
+            try (var array = SegmentedArray.create(160, 16, directory, List.of(path), CompactInteger.serializer,
+                    FixedObjectLayout::new, template)) {
+                for (int i = 0; i < array.length(); i++) {
+                    array.set(i, compact(i));
+                    assertTrue(array.opened() <= 2);
+                }
+                for (int i = 0; i < array.length(); i += 7) assertEquals(compact(i), array.get(i), "" + i);
+                assertTrue(array.opened() <= 2);
+            }
+            try (var array = SegmentedArray.open(directory, CompactInteger.serializer, FixedObjectLayout::new, template)) {
+                for (int i = 0; i < array.length(); i++) assertEquals(compact(i), array.get(i), "" + i);
+            }
+        } finally {
+            SegmentedArray.OPEN_SEGMENTS = open;
+        }
+    }
+}
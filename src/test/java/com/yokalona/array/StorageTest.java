@@ -0,0 +1,69 @@
+package com.yokalona.array;
+
+import com.yokalona.array.configuration.File.Backend;
+import com.yokalona.array.io.DirectStorage;
+import com.yokalona.array.io.MemoryStorage;
+import com.yokalona.array.io.Storage;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.yokalona.array.configuration.File.file;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StorageTest {
+
+    @ParameterizedTest
+    @EnumSource(Backend.class)
+    public void
+    testUnalignedWritesAndReads(Backend backend) throws IOException {
+        Path path = Files.createTempDirectory("storage").resolve("unaligned.tst");
+        var configuration = file(path).backend(backend).cached();
+        Random random = new Random(42);
+        byte[] expected = new byte[0];
+        int block;
+        try (Storage storage = Storage.open(configuration)) {
+            block = block(storage);
+            for (int round = 0; round < 200; round++) {
+                int position = random.nextInt(3 * block);
+                byte[] data = new byte[1 + random.nextInt(2 * block)];
+                random.nextBytes(data);
+                storage.write(position, data);
+                if (expected.length < position + data.length) expected = Arrays.copyOf(expected, position + data.length);
+                System.arraycopy(data, 0, expected, position, data.length);
+                assertEquals(expected.length, storage.size());
+
+                int from = random.nextInt(expected.length);
+                byte[] read = new byte[expected.length - from];
+                storage.readFully(from, read, 0, read.length);
+                assertArrayEquals(Arrays.copyOfRange(expected, from, expected.length), read);
+            }
+            assertEquals(-1, storage.read(expected.length, new byte[1], 0, 1));
+            storage.truncate(block + 1);
+            assertEquals(block + 1, storage.size());
+            storage.force(true);
+        }
+        try (Storage storage = Storage.open(configuration)) {
+            byte[] read = new byte[block + 1];
+            storage.readFully(0, read, 0, read.length);
+            assertArrayEquals(Arrays.copyOf(expected, read.length), read);
+        }
+        if (backend == Backend.MEMORY) {
+            assertTrue(Storage.exists(configuration));
+            assertFalse(Files.exists(path));
+            MemoryStorage.delete(path);
+            assertFalse(Storage.exists(configuration));
+        } else Files.delete(path);
+    }
+
+    private static int
+    block(Storage storage) {
+        return storage instanceof DirectStorage direct ? direct.block() : 4096;
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.yokalona.array;
+
+import com.yokalona.array.io.Synchronizer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.yokalona.array.configuration.Durability.flush;
+import static com.yokalona.array.configuration.Durability.group;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SynchronizerTest {
+
+    @Test
+    public void
+    testSyncsWithinWindowShareOneForce() throws Exception {
+        Path path = Files.createTempDirectory("synchronizer");
+        Counting first = new Counting(), second = new Counting();
+        try (Synchronizer synchronizer = Synchronizer.open(group(Duration.ofMillis(200)), path.resolve("first.la"));
+             Synchronizer shared = Synchronizer.open(group(Duration.ofMillis(200)), path.resolve("second.la"))) {
+            assertSame(synchronizer, shared);
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(synchronizer.sync(first));
+                futures.add(shared.sync(second));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+            assertEquals(1, first.forces.get());
+            assertEquals(1, second.forces.get());
+        }
+    }
+
+    @Test
+    public void
+    testSynchronizerIsReleasedByLastFile() throws Exception {
+        Path path = Files.createTempDirectory("synchronizer");
+        Counting target = new Counting();
+        Synchronizer synchronizer = Synchronizer.open(group(Duration.ofMillis(50)), path.resolve("first.la"));
+        Synchronizer shared = Synchronizer.open(group(Duration.ofMillis(50)), path.resolve("second.la"));
+        synchronizer.close();
+        shared.sync(target).get(10, TimeUnit.SECONDS);
+        CompletableFuture<Void> pending = shared.sync(target);
+        shared.close();
+        assertTrue(pending.isDone());
+        try (Synchronizer fresh = Synchronizer.open(group(Duration.ofMillis(50)), path.resolve("first.la"))) {
+            assertNotSame(shared, fresh);
+        }
+        try (Synchronizer flush = Synchronizer.open(flush(), path.resolve("first.la"))) {
+            assertTrue(flush.sync(target).isDone());
+        }
+        assertEquals(3, target.forces.get());
+    }
+
+    @Test
+    public void
+    testSyncAfterCloseIsServedSynchronously() throws Exception {
+        Path path = Files.createTempDirectory("synchronizer");
+        Counting target = new Counting();
+        Synchronizer synchronizer = Synchronizer.open(group(Duration.ofMillis(50)), path.resolve("closed.la"));
+        synchronizer.close();
+        CompletableFuture<Void> future = synchronizer.sync(target);
+        assertTrue(future.isDone());
+        assertFalse(future.isCompletedExceptionally());
+        assertEquals(1, target.forces.get());
+    }
+
+    private static final class Counting implements Synchronizer.Sync {
+        private final AtomicInteger forces = new AtomicInteger();
+
+        @Override
+        public void
+        force() throws IOException {
+            forces.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.yokalona.array;
+
+import com.yokalona.array.debug.CompactInteger;
+import com.yokalona.array.io.FixedObjectLayout;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+
+import static com.yokalona.array.configuration.Chunked.chunked;
+import static com.yokalona.array.configuration.ChunkedRead.read;
+import static com.yokalona.array.configuration.ChunkedWrite.write;
+import static com.yokalona.array.configuration.Configuration.configure;
+import static com.yokalona.array.configuration.File.file;
+import static com.yokalona.array.configuration.Tuned.tuned;
+import static com.yokalona.array.debug.CompactInteger.compact;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TunerTest {
+
+    private Path path;
+
+    @BeforeEach
+    public void
+    setUp() throws IOException {
+        this.path = Files.createTempDirectory("tuner");
+    }
+
+    @AfterEach
+    public void
+    tearDown() throws IOException {
+        try (var folder = Files.walk(path)) {
+            folder.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(file -> {
+                boolean ignore = file.delete();
+            });
+        }
+    }
+
+    @Test
+    public void
+    testSequentialReadsGrowReadChunk() {
+        try (var array = new PersistentArray<>(1_000, CompactInteger.serializer, FixedObjectLayout::new,
+                configure(file(path.resolve("testSequentialReadsGrowReadChunk.la")).cached())
+                        .memory(chunked(64))
+                        .tuned(tuned(Duration.ofHours(1), 1, 64))
+                        .read(read().chunked(1))
+                        .write(write().chunked(64)))) {
+            for (int i = 0; i < array.length(); i++) array.set(i, compact(i));
+            array.flush();
+            for (int round = 0; round < 10; round++) {
+                for (int i = 0; i < array.length(); i++) assertEquals(i, array.get(i).value());
+                array.tuner().run();
+            }
+            array.get(0);
+            assertTrue(array.readChunk() >= 32, array.readChunk() + "");
+            assertTrue(array.memoryChunk() >= array.readChunk());
+        }
+    }
+
+    @Test
+    public void
+    testTunerRespectsBounds() {
+        try (var array = new PersistentArray<>(1_000, CompactInteger.serializer, FixedObjectLayout::new,
+                configure(file(path.resolve("testTunerRespectsBounds.la")).cached())
+                        .memory(chunked(64))
+                        .tuned(tuned(Duration.ofHours(1), 2, 8))
+                        .read(read().chunked(2))
+                        .write(write().chunked(2)))) {
+            for (int round = 0; round < 10; round++) {
+                for (int i = 0; i < array.length(); i++) array.set(i, compact(i));
+                for (int i = 0; i < array.length(); i++) array.get(i);
+                array.tuner().run();
+            }
+            array.get(0);
+            assertTrue(array.readChunk() >= 2 && array.readChunk() <= 8, array.readChunk() + "");
+            assertTrue(array.writeChunk() >= 2 && array.writeChunk() <= 8, array.writeChunk() + "");
+        }
+    }
+}
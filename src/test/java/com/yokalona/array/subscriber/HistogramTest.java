@@ -0,0 +1,33 @@
+package com.yokalona.array.subscriber;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistogramTest {
+
+    @Test
+    public void
+    testBucketsCoverValue() {
+        for (long value : new long[]{0, 1, 31, 32, 33, 1000, 123_456_789, Long.MAX_VALUE >>> 1, Long.MAX_VALUE}) {
+            int bucket = Histogram.bucket(value);
+            assertTrue(value <= Histogram.highest(bucket), value + "");
+            assertTrue(bucket == 0 || value > Histogram.highest(bucket - 1), value + "");
+        }
+    }
+
+    @Test
+    public void
+    testPercentiles() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.percentile(50));
+        for (int value = 1; value <= 10_000; value++) histogram.record(value);
+        assertEquals(10_000, histogram.count());
+        assertEquals(5_000, histogram.percentile(50), 5_000 * .0625);
+        assertEquals(9_900, histogram.percentile(99), 9_900 * .0625);
+        assertEquals(9_990, histogram.percentile(99.9), 9_990 * .0625);
+        assertTrue(histogram.percentile(100) >= 10_000);
+        histogram.reset();
+        assertEquals(0, histogram.count());
+    }
+}
@@ -0,0 +1,82 @@
+package com.yokalona.file;
+
+import com.yokalona.array.configuration.File;
+import com.yokalona.array.io.CachedFile;
+import com.yokalona.file.exceptions.NoFreeFrameException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BufferPoolTest {
+
+    private static final int PAGE = 64;
+
+    private Path folder;
+
+    @BeforeEach
+    public void
+    setUp() throws IOException {
+        this.folder = Files.createTempDirectory("pool");
+    }
+
+    @AfterEach
+    public void
+    tearDown() throws IOException {
+        try (var files = Files.walk(folder)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(file -> {
+                boolean ignore = file.delete();
+            });
+        }
+    }
+
+    @Test
+    void testDirtyFramesAreWrittenBackOnEvictionAndFlush() throws IOException {
+        Path path = folder.resolve("pages");
+        CachedFile file = new CachedFile(File.file(path).cached());
+        BufferPool pool = new BufferPool(file, 4, PAGE);
+        for (int page = 0; page < 8; page++) {
+            BufferPool.Frame frame = pool.pin((long) page * PAGE, true);
+            Arrays.fill(frame.data(), (byte) page);
+            pool.unpin(frame, true);
+        }
+        assertEquals(0, pool.reads());
+        assertEquals(4, pool.writes());
+
+        pool.flush();
+        assertEquals(5, pool.writes(), "adjacent dirty frames are written at once");
+        assertEquals(8L * PAGE, Files.size(path));
+
+        for (int page = 0; page < 8; page++) {
+            BufferPool.Frame frame = pool.pin((long) page * PAGE, false);
+            for (byte value : frame.data()) assertEquals(page, value);
+            pool.unpin(frame, false);
+        }
+        pool.flush();
+        assertEquals(5, pool.writes(), "clean frames are never written");
+        file.closeFile();
+    }
+
+    @Test
+    void testPinnedFramesAreNeverEvicted() throws IOException {
+        Path path = folder.resolve("pages");
+        CachedFile file = new CachedFile(File.file(path).cached());
+        BufferPool pool = new BufferPool(file, 2, PAGE);
+        BufferPool.Frame pinned = pool.pin(0L, true);
+        pinned.attach("parsed");
+        for (int page = 1; page < 16; page++) pool.unpin(pool.pin((long) page * PAGE, true), false);
+        assertSame(pinned, pool.pin(0L, false));
+        assertEquals("parsed", pinned.attachment());
+
+        pool.pin(PAGE, true);
+        assertThrows(NoFreeFrameException.class, () -> pool.pin(2L * PAGE, true));
+        file.closeFile();
+    }
+}
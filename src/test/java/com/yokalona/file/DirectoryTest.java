@@ -0,0 +1,81 @@
+package com.yokalona.file;
+
+import com.yokalona.array.configuration.File;
+import com.yokalona.array.io.CachedFile;
+import com.yokalona.tree.TestHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectoryTest {
+
+    private static final int NODE = 64;
+
+    private Path folder;
+
+    @BeforeEach
+    public void
+    setUp() throws IOException {
+        this.folder = Files.createTempDirectory("directory");
+    }
+
+    @AfterEach
+    public void
+    tearDown() throws IOException {
+        try (var files = Files.walk(folder)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(file -> {
+                boolean ignore = file.delete();
+            });
+        }
+    }
+
+    @Test
+    void testDirectoryGrowsAndIsReadBack() throws IOException {
+        Path path = folder.resolve("directory");
+        CachedFile file = new CachedFile(File.file(path).cached());
+        Directory directory = Directory.create(file, NODE, NODE, NODE);
+        long[] addresses = new long[500];
+        int[] sizes = new int[addresses.length];
+        for (int page = 0; page < addresses.length; page++) {
+            directory.add(addresses[page] = directory.allocate(), sizes[page] = TestHelper.RANDOM.nextInt(1000));
+            if (page % 7 == 0) {
+                int changed = TestHelper.RANDOM.nextInt(page + 1);
+                directory.update(changed, sizes[changed] = TestHelper.RANDOM.nextInt(1000));
+            }
+        }
+        assertTrue(directory.depth() > 2, "three pointers fit a node");
+        directory.flush();
+        file.closeFile();
+
+        file = new CachedFile(File.file(path).cached());
+        directory = Directory.read(file, NODE, NODE, NODE);
+        assertEquals(addresses.length, directory.pages());
+        Set<Long> allocated = new HashSet<>();
+        for (int page = 0; page < addresses.length; page++) {
+            assertEquals(addresses[page], directory.address(page));
+            assertEquals(sizes[page], directory.size(page));
+            assertTrue(allocated.add(addresses[page]));
+        }
+        long next = directory.allocate();
+        assertTrue(allocated.stream().allMatch(address -> address < next), "space is allocated past every page");
+        directory.add(next, 1);
+        directory.flush();
+        file.closeFile();
+
+        file = new CachedFile(File.file(path).cached());
+        directory = Directory.read(file, NODE, NODE, NODE);
+        assertEquals(addresses.length + 1, directory.pages());
+        assertEquals(next, directory.address(addresses.length));
+        assertEquals(1, directory.size(addresses.length));
+        file.closeFile();
+    }
+}
@@ -0,0 +1,65 @@
+package com.yokalona.file;
+
+import com.yokalona.array.configuration.File;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FreeExtentsTest {
+
+    private static final int PAGE = 4096;
+
+    private Path folder;
+
+    @BeforeEach
+    public void
+    setUp() throws IOException {
+        this.folder = Files.createTempDirectory("fex");
+    }
+
+    @AfterEach
+    public void
+    tearDown() throws IOException {
+        try (var files = Files.walk(folder)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(file -> {
+                boolean ignore = file.delete();
+            });
+        }
+    }
+
+    @Test
+    void testBestFitIsTakenMergedAndPersisted() throws IOException {
+        File file = File.file(folder.resolve("extents.fex")).cached();
+        try (FreeExtents extents = new FreeExtents(PAGE, file)) {
+            assertEquals(-1, extents.take(1));
+            extents.release(10 * PAGE, 4 * PAGE);
+            extents.release(20 * PAGE, 2 * PAGE - 1);
+            assertEquals(6 * PAGE, extents.free(), "extents are rounded up to pages");
+            assertEquals(20 * PAGE, extents.take(PAGE + 1), "best fit is taken");
+            assertEquals(10 * PAGE, extents.take(PAGE));
+            assertEquals(11 * PAGE, extents.take(2 * PAGE), "rest of an extent stays free");
+            assertEquals(-1, extents.take(2 * PAGE));
+            extents.release(14 * PAGE, PAGE);
+            extents.release(11 * PAGE, 2 * PAGE);
+            assertEquals(11 * PAGE, extents.take(4 * PAGE), "adjacent extents are merged");
+            extents.release(30 * PAGE, 3 * PAGE);
+            extents.release(40 * PAGE, PAGE);
+        }
+        try (FreeExtents extents = new FreeExtents(PAGE, file)) {
+            assertEquals(4 * PAGE, extents.free());
+            assertEquals(40 * PAGE, extents.take(PAGE));
+            assertEquals(30 * PAGE, extents.take(3 * PAGE));
+            assertEquals(0, extents.free());
+        }
+        try (FreeExtents extents = new FreeExtents(PAGE, file)) {
+            assertEquals(-1, extents.take(1), "emptied list is persisted");
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.yokalona.file;
+
+import com.yokalona.array.configuration.File;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FreeSpaceMapTest {
+
+    private static final int PAGE = 4096;
+    private static final int WIDTH = PAGE / FreeSpaceMap.BUCKETS;
+
+    private Path folder;
+
+    @BeforeEach
+    public void
+    setUp() throws IOException {
+        this.folder = Files.createTempDirectory("fsm");
+    }
+
+    @AfterEach
+    public void
+    tearDown() throws IOException {
+        try (var files = Files.walk(folder)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(file -> {
+                boolean ignore = file.delete();
+            });
+        }
+    }
+
+    @Test
+    void testPageWithEnoughRoomIsFoundAndPersisted() throws IOException {
+        File file = File.file(folder.resolve("pages.fsm")).cached();
+        try (FreeSpaceMap map = new FreeSpaceMap(PAGE, file)) {
+            for (int page = 0; page < 10_000; page++) map.set(page, 0);
+            assertEquals(-1, map.find(1));
+            map.set(42, 10 * WIDTH + 1);
+            map.set(4242, 20 * WIDTH);
+            assertEquals(42, map.find(10 * WIDTH));
+            assertEquals(4242, map.find(10 * WIDTH + 1), "free space is rounded down");
+            assertEquals(-1, map.find(20 * WIDTH + 1));
+            map.set(4242, 0);
+            assertEquals(-1, map.find(10 * WIDTH + 1));
+            map.set(9_999, PAGE);
+            assertEquals(9_999, map.find(PAGE - WIDTH));
+        }
+        try (FreeSpaceMap map = new FreeSpaceMap(PAGE, file)) {
+            assertEquals(10_000, map.pages());
+            assertEquals(10 * WIDTH, map.free(42));
+            assertEquals(0, map.free(4242));
+            assertEquals(42, map.find(5 * WIDTH));
+            assertEquals(9_999, map.find(20 * WIDTH));
+        }
+    }
+}
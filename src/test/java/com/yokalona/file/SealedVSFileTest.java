@@ -0,0 +1,115 @@
+package com.yokalona.file;
+
+import com.yokalona.array.configuration.File;
+import com.yokalona.array.serializers.primitives.StringSerializer;
+import com.yokalona.file.exceptions.CRCMismatchException;
+import com.yokalona.file.exceptions.ReadOverflowException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SealedVSFileTest {
+
+    private Path folder;
+
+    @BeforeEach
+    public void
+    setUp() throws IOException {
+        this.folder = Files.createTempDirectory("vsfile");
+    }
+
+    @AfterEach
+    public void
+    tearDown() throws IOException {
+        try (var files = Files.walk(folder)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(file -> {
+                boolean ignore = file.delete();
+            });
+        }
+    }
+
+    @Test
+    void testSealedFileReadsWhatWasWritten() throws Exception {
+        Path path = folder.resolve("sealed.yaga");
+        List<String> values = new ArrayList<>();
+        List<Long> rids = new ArrayList<>();
+        List<Long> located = new ArrayList<>();
+        long size;
+        try (VSFile<String> file = new VSFile<>(StringSerializer.INSTANCE, new VSFile.Configuration(File.file(path).cached(), false, 4))) {
+            for (int i = 0; i < 5_000; i++) {
+                String value = i + (i % 250 == 0 ? "x".repeat(VSFile.VS_PAGE_SIZE) : "");
+                values.add(value);
+                rids.add(file.locate(file.append(value)));
+            }
+            for (int i = 1; i < values.size(); i += 7) {
+                values.set(i, i + "y".repeat(100));
+                assertTrue(file.update(rids.get(i), values.get(i)));
+            }
+            for (int i = 2; i < values.size(); i += 7) {
+                values.set(i, null);
+                assertTrue(file.delete(rids.get(i)));
+            }
+            size = file.size();
+            for (long ordinal = 0; ordinal < size; ordinal++) located.add(file.locate(ordinal));
+        }
+
+        try (SealedVSFile<String> sealed = new SealedVSFile<>(StringSerializer.INSTANCE, path)) {
+            assertEquals(size, sealed.size());
+            assertThrows(ReadOverflowException.class, () -> sealed.get(size));
+            assertThrows(ReadOverflowException.class, () -> sealed.get(sealed.pages(), 0));
+            List<Future<?>> futures = new ArrayList<>();
+            try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+                for (int reader = 0; reader < 4; reader++) {
+                    int offset = reader;
+                    futures.add(executor.submit(() -> {
+                        for (int i = 0; i < values.size(); i++) {
+                            int index = (i + offset * 1_000) % values.size();
+                            long rid = rids.get(index);
+                            assertEquals(values.get(index), sealed.get(VSFile.page(rid), VSFile.slot(rid)));
+                        }
+                    }));
+                }
+            }
+            for (Future<?> future : futures) future.get();
+            for (int ordinal = 0; ordinal < size; ordinal++) assertEquals(located.get(ordinal), sealed.locate(ordinal));
+        }
+    }
+
+    @Test
+    void testPageIsVerifiedOnItsFirstRead() throws IOException {
+        Path path = folder.resolve("verified.yaga");
+        List<Long> rids = new ArrayList<>();
+        try (VSFile<String> file = new VSFile<>(StringSerializer.INSTANCE, new VSFile.Configuration(File.file(path).cached(), false, 4))) {
+            for (int i = 0; i < 1_000; i++) rids.add(file.locate(file.append("value " + i)));
+        }
+        int last = VSFile.page(rids.getLast());
+        long second = rids.stream().filter(rid -> VSFile.page(rid) == last).findFirst().orElseThrow();
+        try (SealedVSFile<String> sealed = new SealedVSFile<>(StringSerializer.INSTANCE, path)) {
+            assertEquals("value 999", sealed.get(last, VSFile.slot(rids.getLast())));
+            String content = new String(Files.readAllBytes(path), StandardCharsets.ISO_8859_1);
+            try (RandomAccessFile corrupted = new RandomAccessFile(path.toFile(), "rw")) {
+                corrupted.seek(content.indexOf("value 999"));
+                corrupted.write('V');
+            }
+            assertNotNull(sealed.get(last, VSFile.slot(second)), "verified page is not verified again");
+        }
+        try (SealedVSFile<String> sealed = new SealedVSFile<>(StringSerializer.INSTANCE, path)) {
+            assertEquals("value 0", sealed.get(0, 0));
+            assertThrows(CRCMismatchException.class, () -> sealed.get(last, VSFile.slot(rids.getLast())));
+        }
+    }
+}
@@ -2,21 +2,52 @@ package com.yokalona.file;
 
 import com.yokalona.array.configuration.File;
 import com.yokalona.array.serializers.primitives.CompactIntegerSerializer;
+import com.yokalona.array.serializers.primitives.StringSerializer;
+import com.yokalona.file.exceptions.NoFreeFrameException;
+import com.yokalona.file.exceptions.ReadOverflowException;
 import com.yokalona.tree.TestHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 class VSFileTest {
 
+    private Path folder;
+
+    @BeforeEach
+    public void
+    setUp() throws IOException {
+        this.folder = Files.createTempDirectory("vsfile");
+    }
+
+    @AfterEach
+    public void
+    tearDown() throws IOException {
+        try (var files = Files.walk(folder)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(file -> {
+                boolean ignore = file.delete();
+            });
+        }
+    }
+
     @Test
     void test() throws IOException {
-        Path vs = Path.of("vs");
-        if (!Files.exists(vs)) Files.createDirectory(vs);
-        Path path = vs.resolve("vsfile.yaga");
-        Files.deleteIfExists(path);
+        Path path = folder.resolve("vsfile.yaga");
         File cached = File.file(path).cached();
         VSFile<Integer> file = new VSFile<>(new CompactIntegerSerializer(Integer.BYTES),
                 new VSFile.Configuration(cached));
@@ -24,8 +55,383 @@ class VSFileTest {
         for (int i = 0; i < 10; i++) {
             file.append(TestHelper.RANDOM.nextInt());
         }
+        file.flush();
         byte[] bytes = Files.readAllBytes(path);
         TestHelper.prettyPrint(bytes);
+        file.close();
+    }
+
+    @Test
+    void testRecordsAreReadBackByOrdinalAndSlot() throws IOException {
+        Path path = folder.resolve("records.yaga");
+        VSFile.Configuration configuration = new VSFile.Configuration(File.file(path).cached(), false, 4);
+        int[] values = new int[5_000];
+        try (VSFile<Integer> file = new VSFile<>(new CompactIntegerSerializer(Integer.BYTES), configuration)) {
+            for (int i = 0; i < values.length; i++) assertEquals(i, file.append(values[i] = TestHelper.RANDOM.nextInt()));
+            assertTrue(file.pages() > 1);
+            for (int i = values.length - 1; i >= 0; i -= 7) assertEquals(values[i], file.get((long) i));
+        }
+        try (VSFile<Integer> file = new VSFile<>(new CompactIntegerSerializer(Integer.BYTES), configuration)) {
+            assertEquals(values.length, file.size());
+            for (int i = 0; i < values.length; i++) assertEquals(values[i], file.get((long) i));
+            int ordinal = 0;
+            for (int page = 0; page < file.pages(); page++) {
+                for (int slot = 0; ; slot++, ordinal++) {
+                    if (ordinal == values.length) break;
+                    try {
+                        assertEquals(values[ordinal], file.get(page, slot));
+                    } catch (ReadOverflowException e) {
+                        break;
+                    }
+                }
+            }
+            assertEquals(values.length, ordinal);
+            assertThrows(ReadOverflowException.class, () -> file.get((long) values.length));
+            assertEquals(values.length, file.append(42));
+            assertEquals(42, file.get((long) values.length));
+        }
+    }
+
+    @Test
+    void testBatchedAppendFillsPagesBackToBack() throws IOException {
+        Path path = folder.resolve("batched.yaga");
+        VSFile.Configuration configuration = new VSFile.Configuration(File.file(path).cached(), false, 4);
+        List<Integer> values = new ArrayList<>();
+        try (VSFile<Integer> file = new VSFile<>(new CompactIntegerSerializer(Integer.BYTES), configuration)) {
+            for (int batch = 0; batch < 5; batch++) {
+                List<Integer> chunk = new ArrayList<>();
+                for (int i = 0; i < 3_000; i++) chunk.add(TestHelper.RANDOM.nextInt());
+                assertEquals(values.size(), file.appendAll(chunk));
+                values.addAll(chunk);
+                assertEquals(values.size(), file.append(batch));
+                values.add(batch);
+            }
+            assertEquals(values.size(), file.appendAll(List.of()));
+        }
+        try (VSFile<Integer> file = new VSFile<>(new CompactIntegerSerializer(Integer.BYTES), configuration)) {
+            assertEquals(values.size(), file.size());
+            for (int i = 0; i < values.size(); i++) assertEquals(values.get(i), file.get((long) i));
+        }
+    }
+
+    @Test
+    void testFileOutgrowsSingleDirectoryPage() throws IOException {
+        Path path = folder.resolve("large.yaga");
+        VSFile.Configuration configuration = new VSFile.Configuration(File.file(path).cached());
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 300_000; i++) values.add(TestHelper.RANDOM.nextInt());
+        try (VSFile<Integer> file = new VSFile<>(new CompactIntegerSerializer(Integer.BYTES), configuration)) {
+            file.appendAll(values);
+            assertTrue(file.pages() > VSFile.AS_PAGE_SIZE / VSFile.PagePointerSerializer.INSTANCE.sizeOf());
+        }
+        try (VSFile<Integer> file = new VSFile<>(new CompactIntegerSerializer(Integer.BYTES), configuration)) {
+            assertEquals(values.size(), file.size());
+            for (int i = 0; i < values.size(); i += 97) assertEquals(values.get(i), file.get((long) i));
+            assertEquals(values.getLast(), file.get((long) values.size() - 1));
+        }
+    }
+
+    @Test
+    void testInsertsReuseFreeSpaceOfPages() throws IOException {
+        Path path = folder.resolve("inserts.yaga");
+        VSFile.Configuration configuration = new VSFile.Configuration(File.file(path).cached(), false, 4);
+        List<String> values = new ArrayList<>();
+        try (VSFile<String> file = new VSFile<>(StringSerializer.INSTANCE, configuration)) {
+            for (int i = 0; i < 60; i++) file.append(record(values, 1_000));
+        }
+        int pages;
+        try (VSFile<String> file = new VSFile<>(StringSerializer.INSTANCE, configuration)) {
+            pages = file.pages();
+            for (int i = 0; i < 60; i++) file.insert(record(values, 100));
+            assertEquals(pages, file.pages(), "records are placed into pages with room");
+        }
+        try (VSFile<String> file = new VSFile<>(StringSerializer.INSTANCE, configuration)) {
+            assertEquals(pages, file.pages());
+            assertEquals(values.size(), file.size());
+            List<String> actual = new ArrayList<>();
+            for (long ordinal = 0; ordinal < file.size(); ordinal++) actual.add(file.get(ordinal));
+            assertEquals(values.stream().sorted().toList(), actual.stream().sorted().toList());
+        }
     }
 
-}
\ No newline at end of file
+    @Test
+    void testUpdatesAndDeletesKeepRecordIdentifiers() throws IOException {
+        Path path = folder.resolve("updates.yaga");
+        VSFile.Configuration configuration = new VSFile.Configuration(File.file(path).cached(), false, 4);
+        long[] rids = new long[200];
+        String[] values = new String[rids.length];
+        try (VSFile<String> file = new VSFile<>(StringSerializer.INSTANCE, configuration)) {
+            for (int i = 0; i < rids.length; i++) rids[i] = file.locate(file.append(values[i] = "v" + i + "x".repeat(100)));
+            for (int i = 0; i < rids.length; i += 3) assertTrue(file.update(rids[i], values[i] = "s" + i));
+            for (int i = 1; i < rids.length; i += 3) assertTrue(file.update(rids[i], values[i] = "g" + i + "y".repeat(500)));
+            for (int i = 1; i < rids.length; i += 6) assertTrue(file.update(rids[i], values[i] = "h" + i + "z".repeat(1_000)));
+            for (int i = 4; i < rids.length; i += 6) assertTrue(file.update(rids[i], values[i] = "i" + i));
+            for (int i = 2; i < rids.length; i += 3) assertTrue(file.delete(rids[i]));
+            for (int i = 7; i < rids.length; i += 6) assertTrue(file.delete(rids[i]));
+            for (int i = 2; i < rids.length; i += 3) assertFalse(file.update(rids[i], "deleted"));
+        }
+        try (VSFile<String> file = new VSFile<>(StringSerializer.INSTANCE, configuration)) {
+            for (int i = 0; i < rids.length; i++) {
+                boolean deleted = i % 3 == 2 || i % 6 == 1 && i >= 7;
+                assertEquals(deleted ? null : values[i], file.get(VSFile.page(rids[i]), VSFile.slot(rids[i])), "record " + i);
+            }
+            long visible = 0;
+            for (long ordinal = 0; ordinal < file.size(); ordinal++) if (file.get(ordinal) != null) visible++;
+            assertEquals(rids.length - rids.length / 3 - (rids.length - 7 + 5) / 6, visible);
+        }
+    }
+
+    @Test
+    void testCompactionReclaimsSpaceOfDeletedRecords() throws IOException, InterruptedException {
+        Path path = folder.resolve("compaction.yaga");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        VSFile.Configuration configuration = new VSFile.Configuration(File.file(path).cached(), false, 4, 1F,
+                VSFile.Compaction.on(executor, 64L * 1024 * 1024));
+        try (VSFile<String> file = new VSFile<>(StringSerializer.INSTANCE, configuration)) {
+            List<Long> rids = new ArrayList<>();
+            for (int i = 0; i < 100; i++) rids.add(file.locate(file.append(i + "x".repeat(1_000))));
+            int pages = file.pages();
+            for (int i = 0; i < rids.size() - 1; i++) file.delete(rids.get(i));
+            long deadline = System.nanoTime() + 10_000_000_000L;
+            while (file.sparse() >= 0 && System.nanoTime() < deadline) Thread.sleep(10);
+            assertEquals(-1, file.sparse());
+            assertEquals(rids.size(), file.size(), "tombstones keep their slots");
+            for (int i = 0; i < 100; i++) file.insert(i + "y".repeat(1_000));
+            assertEquals(pages, file.pages(), "space of deleted records is reused");
+            for (int i = 0; i < rids.size() - 1; i++) assertNull(file.get(VSFile.page(rids.get(i)), VSFile.slot(rids.get(i))), "rid is not reused");
+            assertEquals("99" + "x".repeat(1_000), file.get(VSFile.page(rids.getLast()), VSFile.slot(rids.getLast())));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testEveryRecordOfPageOfSmallValuesIsDeleted() throws IOException {
+        Path path = folder.resolve("deletes.yaga");
+        VSFile.Configuration configuration = new VSFile.Configuration(File.file(path).cached(), false, 4);
+        List<Long> rids = new ArrayList<>();
+        try (VSFile<Integer> file = new VSFile<>(new CompactIntegerSerializer(Integer.BYTES), configuration)) {
+            for (int i = 0; i < 1_000; i++) rids.add(file.locate(file.append(i)));
+            for (long rid : rids) if (VSFile.page(rid) == 0) assertTrue(file.delete(rid));
+            for (int i = 0; i < rids.size(); i += 2) if (VSFile.page(rids.get(i)) == 1) assertTrue(file.update(rids.get(i), -i));
+        }
+        try (VSFile<Integer> file = new VSFile<>(new CompactIntegerSerializer(Integer.BYTES), configuration)) {
+            for (int i = 0; i < rids.size(); i++) {
+                long rid = rids.get(i);
+                Integer expected = VSFile.page(rid) == 0 ? null : VSFile.page(rid) == 1 && i % 2 == 0 ? -i : i;
+                assertEquals(expected, file.get(VSFile.page(rid), VSFile.slot(rid)), "record " + i);
+            }
+        }
+    }
+
+    @Test
+    void testCompactionToleratesUnavailableExecutor() throws IOException {
+        Path path = folder.resolve("unavailable.yaga");
+        Executor[] executors = {command -> {
+            throw new RejectedExecutionException();
+        }, command -> {
+        }};
+        for (Executor executor : executors) {
+            VSFile.Configuration configuration = new VSFile.Configuration(File.file(path).cached(), false, 4, 1F,
+                    VSFile.Compaction.on(executor, 64L * 1024 * 1024));
+            long start = System.nanoTime();
+            try (VSFile<String> file = new VSFile<>(StringSerializer.INSTANCE, configuration)) {
+                List<Long> rids = new ArrayList<>();
+                for (int i = 0; i < 10; i++) rids.add(file.locate(file.append(i + "x".repeat(1_000))));
+                for (long rid : rids) assertTrue(file.delete(rid));
+                assertTrue(file.sparse() >= 0);
+            }
+            assertTrue(System.nanoTime() - start < 5 * Compactor.CLOSE_TIMEOUT);
+        }
+    }
+
+    @Test
+    void testScanReturnsLiveRecordsInOrder() throws IOException {
+        Path path = folder.resolve("scan.yaga");
+        VSFile.Configuration configuration = new VSFile.Configuration(File.file(path).cached(), false, 4);
+        List<String> expected = new ArrayList<>();
+        try (VSFile<String> file = new VSFile<>(StringSerializer.INSTANCE, configuration)) {
+            try (Scan<String> scan = file.scan()) {
+                assertFalse(scan.hasNext());
+            }
+            List<Long> rids = new ArrayList<>();
+            for (int i = 0; i < 2_000; i++) rids.add(file.locate(file.append(record(expected, i % 50))));
+            for (int i = 0; i < rids.size(); i += 5) file.delete(rids.get(i));
+            for (int i = 1; i < rids.size(); i += 5) file.update(rids.get(i), i + "z".repeat(200));
+            for (int i = 0; i < rids.size(); i++) {
+                if (i % 5 == 0) expected.set(i, null);
+                else if (i % 5 == 1) expected.set(i, i + "z".repeat(200));
+            }
+            expected.removeIf(Objects::isNull);
+
+            for (int batch : new int[]{1, 3, VSFile.SCAN_BATCH}) {
+                List<String> actual = new ArrayList<>();
+                try (Scan<String> scan = file.scan(batch)) {
+                    while (scan.hasNext()) {
+                        String value = scan.next();
+                        actual.add(value);
+                        assertEquals(value, file.get(VSFile.page(scan.rid()), VSFile.slot(scan.rid())));
+                    }
+                }
+                assertEquals(expected, actual);
+            }
+        }
+    }
+
+    @Test
+    void testLargeRecordsAreStoredInExtents() throws IOException {
+        Path path = folder.resolve("overflow.yaga");
+        VSFile.Configuration configuration = new VSFile.Configuration(File.file(path).cached(), false, 4);
+        List<String> values = new ArrayList<>();
+        List<Long> rids = new ArrayList<>();
+        try (VSFile<String> file = new VSFile<>(StringSerializer.INSTANCE, configuration)) {
+            for (int i = 0; i < 40; i++) {
+                int length = i % 4 == 0 ? 64 * 1024 << (i % 5) : i % 4 == 1 ? VSFile.VS_PAGE_SIZE : 10;
+                rids.add(file.locate(file.append(record(values, length))));
+            }
+            rids.add(file.locate(file.append(record(values, 10 * 1024 * 1024))));
+            for (int i = 0; i < rids.size(); i++) assertEquals(values.get(i), file.get(VSFile.page(rids.get(i)), VSFile.slot(rids.get(i))));
+            values.set(2, "grown" + "x".repeat(100_000));
+            assertTrue(file.update(rids.get(2), values.get(2)));
+            values.set(4, "shrunk");
+            assertTrue(file.update(rids.get(4), values.get(4)));
+            values.set(2, "shrunk again");
+            assertTrue(file.update(rids.get(2), values.get(2)));
+            values.set(8, null);
+            assertTrue(file.delete(rids.get(8)));
+        }
+        try (VSFile<String> file = new VSFile<>(StringSerializer.INSTANCE, configuration)) {
+            for (int i = 0; i < rids.size(); i++) assertEquals(values.get(i), file.get(VSFile.page(rids.get(i)), VSFile.slot(rids.get(i))), "record " + i);
+            List<String> scanned = new ArrayList<>();
+            try (Scan<String> scan = file.scan()) {
+                scan.forEachRemaining(scanned::add);
+            }
+            assertEquals(values.stream().filter(Objects::nonNull).toList(), scanned);
+            file.append("after");
+            assertEquals(values.getLast(), file.get(VSFile.page(rids.getLast()), VSFile.slot(rids.getLast())), "extents are not reused");
+        }
+    }
+
+    @Test
+    void testFreedExtentsAreReused() throws IOException {
+        Path path = folder.resolve("extents.yaga");
+        VSFile.Configuration configuration = new VSFile.Configuration(File.file(path).cached(), false, 4);
+        List<String> values = new ArrayList<>();
+        List<Long> rids = new ArrayList<>();
+        long size;
+        try (VSFile<String> file = new VSFile<>(StringSerializer.INSTANCE, configuration)) {
+            for (int i = 0; i < 8; i++) rids.add(file.locate(file.append(record(values, 256 * 1024))));
+            file.flush();
+            size = Files.size(path);
+            for (int round = 0; round < 20; round++) {
+                for (int i = 0; i < rids.size(); i++) {
+                    values.set(i, round + "-" + i + "x".repeat(200 * 1024 + round * i));
+                    assertTrue(file.update(rids.get(i), values.get(i)));
+                }
+            }
+            values.set(3, null);
+            assertTrue(file.delete(rids.get(3)));
+            file.flush();
+            long deleted = Files.size(path);
+            assertFalse(file.update(rids.get(3), "x".repeat(1024 * 1024)));
+            assertFalse(file.delete(rids.get(3)));
+            file.flush();
+            assertEquals(deleted, Files.size(path), "dead record takes no extent");
+            assertTrue(Files.size(path) <= 2 * size, "overwritten extents are reused");
+        }
+        try (VSFile<String> file = new VSFile<>(StringSerializer.INSTANCE, configuration)) {
+            for (int i = 0; i < rids.size(); i++) assertEquals(values.get(i), file.get(VSFile.page(rids.get(i)), VSFile.slot(rids.get(i))), "record " + i);
+            for (int round = 0; round < 10; round++) {
+                for (int i = 0; i < rids.size(); i++) {
+                    if (i == 3) continue;
+                    values.set(i, round + "+" + i + "y".repeat(180 * 1024));
+                    assertTrue(file.update(rids.get(i), values.get(i)));
+                }
+            }
+            rids.add(file.locate(file.append(record(values, 256 * 1024))));
+            file.flush();
+            assertTrue(Files.size(path) <= 2 * size, "extents are reused after reopen");
+            for (int i = 0; i < rids.size(); i++) assertEquals(values.get(i), file.get(VSFile.page(rids.get(i)), VSFile.slot(rids.get(i))), "record " + i);
+            List<String> scanned = new ArrayList<>();
+            try (Scan<String> scan = file.scan()) {
+                scan.forEachRemaining(scanned::add);
+            }
+            assertEquals(values.stream().filter(Objects::nonNull).toList(), scanned);
+        }
+    }
+
+    @Test
+    void testAppendersBeyondFramesOfPoolAreRejected() throws IOException {
+        Path path = folder.resolve("frames.yaga");
+        VSFile.Configuration configuration = new VSFile.Configuration(File.file(path).cached(), false, 4);
+        try (VSFile<Integer> file = new VSFile<>(new CompactIntegerSerializer(Integer.BYTES), configuration)) {
+            VSFile<Integer>.Appender first = file.appender(), second = file.appender(), third = file.appender();
+            long rid = first.append(1);
+            second.append(2);
+            assertThrows(NoFreeFrameException.class, () -> third.append(3));
+            first.close();
+            third.append(3);
+            assertEquals(1, file.get(VSFile.page(rid), VSFile.slot(rid)));
+            second.close();
+            third.close();
+            assertEquals(3, file.size());
+        }
+    }
+
+    @Test
+    void testAppendersAppendConcurrently() throws Exception {
+        Path path = folder.resolve("appenders.yaga");
+        VSFile.Configuration configuration = new VSFile.Configuration(File.file(path).cached(), false, 16);
+        int producers = 8, count = 5_000;
+        long[][] rids = new long[producers][count];
+        try (VSFile<String> file = new VSFile<>(StringSerializer.INSTANCE, configuration)) {
+            file.append("first");
+            List<Future<?>> futures = new ArrayList<>();
+            try (ExecutorService executor = Executors.newFixedThreadPool(producers)) {
+                for (int producer = 0; producer < producers; producer++) {
+                    int id = producer;
+                    futures.add(executor.submit(() -> {
+                        try (VSFile<String>.Appender appender = file.appender()) {
+                            for (int i = 0; i < count; i++) {
+                                String value = id + ":" + i + (i % 100 == 0 ? "x".repeat(VSFile.VS_OVERFLOW) : "");
+                                rids[id][i] = appender.append(value);
+                                if (i % 500 == 0) assertEquals(value, file.get(VSFile.page(rids[id][i]), VSFile.slot(rids[id][i])));
+                            }
+                        }
+                    }));
+                }
+                for (int i = 0; i < count; i++) {
+                    file.append("main:" + i);
+                    if (i % 250 == 0) file.flush();
+                }
+            }
+            for (Future<?> future : futures) future.get();
+            assertEquals(1 + producers * count + count, file.size());
+        }
+        try (VSFile<String> file = new VSFile<>(StringSerializer.INSTANCE, configuration)) {
+            assertEquals(1 + producers * count + count, file.size());
+            assertEquals("first", file.get(0));
+            for (int producer = 0; producer < producers; producer++) {
+                for (int i = 0; i < count; i++) {
+                    String value = producer + ":" + i + (i % 100 == 0 ? "x".repeat(VSFile.VS_OVERFLOW) : "");
+                    assertEquals(value, file.get(VSFile.page(rids[producer][i]), VSFile.slot(rids[producer][i])));
+                }
+            }
+            try (Scan<String> scan = file.scan()) {
+                int scanned = 0;
+                while (scan.hasNext()) {
+                    scan.next();
+                    scanned++;
+                }
+                assertEquals(1 + producers * count + count, scanned);
+            }
+        }
+    }
+
+    private static String
+    record(List<String> values, int length) {
+        String value = values.size() + "-" + "x".repeat(length);
+        values.add(value);
+        return value;
+    }
+}
@@ -0,0 +1,114 @@
+package com.yokalona.jfr;
+
+import com.yokalona.array.PersistentArray;
+import com.yokalona.array.debug.CompactInteger;
+import com.yokalona.array.io.FixedObjectLayout;
+import com.yokalona.array.serializers.primitives.StringSerializer;
+import com.yokalona.file.headers.CRC;
+import com.yokalona.file.page.VSPage;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.yokalona.array.configuration.Chunked.chunked;
+import static com.yokalona.array.configuration.ChunkedRead.read;
+import static com.yokalona.array.configuration.ChunkedWrite.write;
+import static com.yokalona.array.configuration.Configuration.configure;
+import static com.yokalona.array.configuration.File.file;
+import static com.yokalona.array.debug.CompactInteger.compact;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventsTest {
+
+    private Path path;
+
+    @BeforeEach
+    public void
+    setUp() throws IOException {
+        this.path = Files.createTempDirectory("jfr");
+    }
+
+    @AfterEach
+    public void
+    tearDown() throws IOException {
+        try (var folder = Files.walk(path)) {
+            folder.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(file -> {
+                boolean ignore = file.delete();
+            });
+        }
+    }
+
+    @Test
+    public void
+    testEventsAreRecorded() throws IOException {
+        Path recording = path.resolve("recording.jfr");
+        try (var jfr = new Recording()) {
+            jfr.enable("com.yokalona.ChunkRead").withThreshold(Duration.ZERO);
+            jfr.enable("com.yokalona.ChunkWrite").withThreshold(Duration.ZERO);
+            jfr.enable("com.yokalona.CacheMiss");
+            jfr.enable("com.yokalona.CRC").withThreshold(Duration.ZERO);
+            jfr.start();
+            var configuration = configure(file(path.resolve("testEventsAreRecorded.la")).cached())
+                    .memory(chunked(10))
+                    .read(read().chunked(10))
+                    .write(write().chunked(10));
+            try (var array = new PersistentArray<>(20, CompactInteger.serializer, FixedObjectLayout::new, configuration)) {
+                for (int i = 0; i < array.length(); i++) array.set(i, compact(i));
+            }
+            try (var array = PersistentArray.deserialize(CompactInteger.serializer, configuration)) {
+                for (int i = 0; i < array.length(); i++) assertEquals(i, array.get(i).value());
+            }
+            byte[] page = new byte[64];
+            CRC crc = new CRC();
+            crc.offset(Long.BYTES);
+            crc.write(page, 0);
+            crc.read(page, 0);
+            jfr.stop();
+            jfr.dump(recording);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recording);
+        assertEquals(2, count(events, "com.yokalona.ChunkWrite"));
+        assertEquals(2, count(events, "com.yokalona.ChunkRead"));
+        assertEquals(2, count(events, "com.yokalona.CacheMiss"));
+        assertEquals(2, count(events, "com.yokalona.CRC"));
+        RecordedEvent read = events.stream().filter(event -> event.getEventType().getName().equals("com.yokalona.ChunkRead"))
+                .findFirst().orElseThrow();
+        assertEquals(10, read.getInt("records"));
+    }
+
+    @Test
+    public void
+    testPageDefragmentationIsRecorded() throws IOException {
+        Path recording = path.resolve("defragmentation.jfr");
+        VSPage<String> page = VSPage.Configurer.create(4096).distribute(.1F).vspage(StringSerializer.INSTANCE);
+        try (var jfr = new Recording()) {
+            for (int i = 0; i < 10; i++) page.append("record " + i);
+            for (int i = 0; i < 10; i += 2) page.set(i, "");
+            jfr.enable("com.yokalona.Defragmentation").withThreshold(Duration.ZERO);
+            jfr.start();
+            page.defragmentation(String.class);
+            jfr.stop();
+            jfr.dump(recording);
+        }
+        RecordedEvent defragmentation = RecordingFile.readAllEvents(recording).stream()
+                .filter(event -> "VSPage".equals(event.getString("space"))).findFirst().orElseThrow();
+        assertEquals(6, defragmentation.getInt("before"));
+        assertEquals(1, defragmentation.getInt("after"));
+        assertEquals(page.free(), defragmentation.getLong("free"));
+    }
+
+    private static long
+    count(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).count();
+    }
+}